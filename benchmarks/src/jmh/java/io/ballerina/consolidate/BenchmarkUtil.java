@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+class BenchmarkUtil {
+
+    private BenchmarkUtil() {}
+
+    static Set<String> services(int count) {
+        Set<String> services = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            services.add("myorg/service" + i);
+        }
+        return services;
+    }
+
+    static String ballerinaToml(Set<String> services) {
+        StringJoiner options = new StringJoiner(", ");
+        for (String service : services) {
+            options.add("\"" + service + "\"");
+        }
+        return """
+                [package]
+                org = "myorg"
+                name = "consolidator"
+                version = "0.1.0"
+
+                [build-options]
+                observabilityIncluded = true
+
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = [%s]
+                """.formatted(options);
+    }
+
+    static Path createConsolidatorPackage(int serviceCount) throws IOException {
+        Path packageRoot = Files.createTempDirectory("consolidator-bench");
+        Files.writeString(packageRoot.resolve(Util.BALLERINA_TOML), ballerinaToml(services(serviceCount)));
+        Files.writeString(packageRoot.resolve("main.bal"), "public function main() {\n}\n");
+        return packageRoot;
+    }
+
+    static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
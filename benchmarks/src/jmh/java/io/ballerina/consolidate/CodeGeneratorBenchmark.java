@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.projects.PackageManifest;
+import io.ballerina.projects.buildtools.ToolContext;
+import io.ballerina.projects.directory.BuildProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the code generation of the build tool, both when the options are unchanged and the generated sources are
+ * reused, and when the sources have to be regenerated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int serviceCount;
+
+    private final CodeGenerator codeGenerator = new CodeGenerator();
+    private Path packageRoot;
+    private ToolContext toolContext;
+    private ConsolidatorOptions options;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        packageRoot = BenchmarkUtil.createConsolidatorPackage(serviceCount);
+        BuildProject project = BuildProject.load(packageRoot);
+        PackageManifest.Tool tool = project.currentPackage().manifest().tools().getFirst();
+        toolContext = ToolContext.from(tool, project.currentPackage(),
+                new PrintStream(OutputStream.nullOutputStream()));
+        options = ConsolidatorOptions.from(tool.optionsTable());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkUtil.deleteRecursively(packageRoot);
+    }
+
+    @Benchmark
+    public Map<String, String> generateSources() {
+        return CodeGenerator.generateSources(options);
+    }
+
+    @Benchmark
+    public void executeWithUnchangedOptions() {
+        codeGenerator.execute(toolContext);
+    }
+
+    @Benchmark
+    public void executeWithChangedOptions() throws IOException {
+        Files.deleteIfExists(toolContext.outputPath().resolve(CodeGenerator.FINGERPRINT_FILE));
+        codeGenerator.execute(toolContext);
+    }
+}
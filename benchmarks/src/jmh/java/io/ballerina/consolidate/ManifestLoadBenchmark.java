@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.projects.PackageManifest;
+import io.ballerina.projects.directory.BuildProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the services of a consolidator package by loading the whole package with
+ * {@link BuildProject#load(Path)} against parsing only its Ballerina.toml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SingleShotTime, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ManifestLoadBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int serviceCount;
+
+    private Path packageRoot;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        packageRoot = BenchmarkUtil.createConsolidatorPackage(serviceCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkUtil.deleteRecursively(packageRoot);
+    }
+
+    @Benchmark
+    public Set<String> buildProjectLoad() {
+        BuildProject buildProject = BuildProject.load(packageRoot);
+        for (PackageManifest.Tool tool : buildProject.currentPackage().manifest().tools()) {
+            if (Util.TOOL_NAME.equals(tool.type().value())) {
+                return Util.getServices(tool.optionsTable());
+            }
+        }
+        throw new IllegalStateException("tool entry not found");
+    }
+
+    @Benchmark
+    public Set<String> manifestOnly() throws IOException {
+        return Util.readServices(packageRoot).orElseThrow();
+    }
+}
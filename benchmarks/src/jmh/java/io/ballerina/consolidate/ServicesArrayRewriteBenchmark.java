@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.projects.TomlDocument;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures how rewriting the services array of a Ballerina.toml scales with the number of services. The regex based
+ * rewrite that was used earlier is kept here as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServicesArrayRewriteBenchmark {
+
+    private static final Pattern LEGACY_PATTERN = Pattern.compile(
+            "options\\.services\\s*=\\s*\\[(?:\\s*\"[^\"]+\"\\s*,?\\s*)+]", Pattern.DOTALL);
+
+    @Param({"10", "100", "1000", "10000", "50000"})
+    public int serviceCount;
+
+    private String content;
+    private Set<String> services;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        content = BenchmarkUtil.ballerinaToml(BenchmarkUtil.services(serviceCount));
+        services = BenchmarkUtil.services(serviceCount + 1);
+    }
+
+    @Benchmark
+    public String syntaxTreeRewrite() throws IOException {
+        TomlDocument balToml = TomlDocument.from(Util.BALLERINA_TOML, content);
+        TomlTableNode options = Util.getToolOptions(balToml.toml().rootNode()).orElseThrow();
+        return Util.replaceServicesArray(content, options, services);
+    }
+
+    @Benchmark
+    public String legacyRegexRewrite() {
+        Matcher matcher = LEGACY_PATTERN.matcher(content);
+        if (!matcher.find()) {
+            return content;
+        }
+        String replacement = "options.services = [\"" + String.join("\", \"", services) + "\"]";
+        return content.replace(matcher.group(), replacement);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.projects.TomlDocument;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and validating the services given to the CLI commands, and reading the services from the options
+ * table of a parsed Ballerina.toml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServicesParseBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int serviceCount;
+
+    private final PrintStream errStream = new PrintStream(OutputStream.nullOutputStream());
+    private String servicesStr;
+    private TomlTableNode toolOptions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Set<String> services = BenchmarkUtil.services(serviceCount);
+        servicesStr = String.join(",", services);
+        TomlDocument balToml = TomlDocument.from(Util.BALLERINA_TOML, BenchmarkUtil.ballerinaToml(services));
+        toolOptions = Util.getToolOptions(balToml.toml().rootNode()).orElseThrow();
+    }
+
+    @Benchmark
+    public Optional<Set<String>> getServicesFromString() throws IOException {
+        return Util.getServices(servicesStr, Util.ADD, errStream);
+    }
+
+    @Benchmark
+    public Set<String> getServicesFromToml() {
+        return Util.getServices(toolOptions);
+    }
+}
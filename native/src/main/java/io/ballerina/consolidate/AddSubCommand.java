@@ -19,16 +19,13 @@ package io.ballerina.consolidate;
 
 import io.ballerina.cli.BLauncherCmd;
 import io.ballerina.cli.cmd.CommandUtil;
-import io.ballerina.projects.PackageManifest;
-import io.ballerina.projects.ProjectException;
-import io.ballerina.projects.directory.BuildProject;
 import picocli.CommandLine;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -100,32 +97,24 @@ public class AddSubCommand implements BLauncherCmd {
             outStream.println("\t" + service);
         }
 
-        try {
-            BuildProject buildProject = BuildProject.load(Paths.get(System.getProperty("user.dir")));
-            if (buildProject.currentPackage().ballerinaToml().isEmpty()) {
-                CommandUtil.printError(this.errStream, "Invalid package provided",
-                        null, false);
-                CommandUtil.exitError(this.exit);
-            }
-            Set<String> allServices = new HashSet<>();
-            for (PackageManifest.Tool tool : buildProject.currentPackage().manifest().tools()) {
-                if (Util.TOOL_NAME.equals(tool.type().value())) {
-                    Set<String> existingServices = Util.getServices(tool.optionsTable());
-                    allServices.addAll(existingServices);
-                    break;
-                }
-            }
-            allServices.addAll(services);
-            Path balTomlPath = buildProject.sourceRoot().resolve(Util.BALLERINA_TOML);
-            Util.replaceServicesArrayInToml(allServices, balTomlPath);
-
-        } catch (ProjectException e) {
+        Path packageRoot = Paths.get(System.getProperty("user.dir"));
+        if (!Files.isRegularFile(packageRoot.resolve(Util.BALLERINA_TOML))) {
             CommandUtil.printError(this.errStream, "Current directory is not a valid Ballerina package",
                     null, false);
             CommandUtil.exitError(this.exit);
+            return;
+        }
+        if (!Util.updateServices(packageRoot, allServices -> Util.addServices(allServices, services))) {
+            CommandUtil.printError(this.errStream, "'" + Util.TOOL_NAME + "' tool entry not found in the "
+                    + Util.BALLERINA_TOML, null, false);
+            CommandUtil.exitError(this.exit);
+            return;
         }
         outStream.println("\nSuccessfully added the services to the package.\n");
         outStream.println("What's next?\n\t Execute 'bal build' to generate the executable.");
+        BalaRepository repository = BalaRepository.fromUserHome();
+        Util.printUnknownServices(services, repository, outStream);
+        Util.lockDependencies(packageRoot, Util.readServices(packageRoot).orElse(services), repository, outStream);
     }
     @Override
     public String getName() {
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.cli.BLauncherCmd;
+import io.ballerina.cli.cmd.CommandUtil;
+import io.ballerina.projects.ProjectException;
+import io.ballerina.projects.SemanticVersion;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static io.ballerina.consolidate.Util.ANALYZE;
+import static io.ballerina.consolidate.Util.HYPHEN;
+
+@CommandLine.Command(name = ANALYZE,
+        description = "Analyzes the dependencies and listeners of the services to consolidate without compiling them")
+public class AnalyzeSubCommand implements BLauncherCmd {
+    private final PrintStream outStream;
+    private final PrintStream errStream;
+    private final BalaRepository repository;
+    boolean exit;
+
+    @CommandLine.Parameters (arity = "0..1")
+    private String servicesStr;
+
+    @CommandLine.Option(names = {"--help"})
+    private boolean help;
+
+    public AnalyzeSubCommand() {
+        this.outStream = System.out;
+        this.errStream = System.err;
+        this.repository = BalaRepository.fromUserHome();
+        this.exit = true;
+    }
+
+    public AnalyzeSubCommand(PrintStream printStream) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.repository = BalaRepository.fromUserHome();
+        this.help = true;
+    }
+
+    public AnalyzeSubCommand(PrintStream printStream, String servicesStr, Path ballerinaHome, boolean exit) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.servicesStr = servicesStr;
+        this.repository = new BalaRepository(ballerinaHome);
+        this.exit = exit;
+        CommandUtil.initJarFs();
+    }
+
+    @Override
+    public void execute() {
+        if (help) {
+            outStream.println(Util.getHelpText(getName()));
+            return;
+        }
+
+        Optional<Set<String>> services;
+        try {
+            services = servicesStr != null ? Util.getServices(servicesStr, ANALYZE, errStream)
+                    : Util.getServicesOfCurrentPackage(errStream);
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to extract the services. ", null, false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+        if (services.isEmpty()) {
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+
+        try {
+            if (!analyze(services.get())) {
+                CommandUtil.exitError(this.exit);
+            }
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to analyze the services, reason: " + e.getMessage(),
+                    null, false);
+            CommandUtil.exitError(this.exit);
+        }
+    }
+
+    /**
+     * Reports the version conflicts and shared dependencies of the given services, using the dependency graphs
+     * resolved when the services were built, and the listeners that the services bind.
+     *
+     * @return false if the services have dependencies with incompatible versions, or listeners that conflict
+     */
+    private boolean analyze(Set<String> services) throws IOException {
+        outStream.println("Analyzing the dependencies of " + services.size() + " services");
+        long startTime = System.nanoTime();
+
+        // package -> version -> services that depend on it, with the versions in ascending order
+        Map<String, TreeMap<String, Set<String>>> dependencies = new TreeMap<>();
+        // service -> the listeners declared in it
+        Map<String, List<ListenerScanner.Listener>> listeners = new HashMap<>();
+        List<String> notFound = new ArrayList<>();
+        List<String> invalid = new ArrayList<>();
+        for (String service : services) {
+            Optional<BalaRepository.Bala> bala = repository.findService(service);
+            if (bala.isEmpty()) {
+                notFound.add(service);
+                continue;
+            }
+            BalaRepository.DependencyGraph dependencyGraph = bala.get().readDependencyGraph();
+            try {
+                for (BalaRepository.PackageDependency dependency : dependencyGraph.packages()) {
+                    SemanticVersion.from(dependency.version());
+                }
+            } catch (ProjectException e) {
+                invalid.add(service + ": " + e.getMessage());
+                continue;
+            }
+            addDependency(dependencies, Util.getPackageName(service), bala.get().version(), service);
+            for (BalaRepository.PackageDependency dependency : dependencyGraph.packages()) {
+                addDependency(dependencies, dependency.qualifiedName(), dependency.version(), service);
+            }
+            listeners.put(service, ListenerScanner.scanBala(bala.get().path()));
+        }
+
+        if (!notFound.isEmpty()) {
+            outStream.println("\nServices not found in the local repositories. Execute 'bal pull' on them to " +
+                    "include them in the analysis:");
+            for (String service : notFound) {
+                outStream.println("\t" + service);
+            }
+        }
+        if (!invalid.isEmpty()) {
+            outStream.println("\nServices with versions in their dependency graphs that cannot be parsed, which are "
+                    + "left out of the analysis:");
+            for (String service : invalid) {
+                outStream.println("\t" + service);
+            }
+        }
+
+        int conflictCount = 0;
+        int incompatibleConflicts = 0;
+        StringBuilder conflicts = new StringBuilder();
+        StringBuilder shared = new StringBuilder();
+        int sharedCount = 0;
+        for (Map.Entry<String, TreeMap<String, Set<String>>> dependency : dependencies.entrySet()) {
+            TreeMap<String, Set<String>> versions = dependency.getValue();
+            if (versions.size() > 1) {
+                StringJoiner usages = new StringJoiner(", ");
+                for (Map.Entry<String, Set<String>> version : versions.entrySet()) {
+                    usages.add(version.getKey() + " (" + String.join(", ", version.getValue()) + ")");
+                }
+                String latest = versions.lastKey();
+                boolean isCompatible = versions.keySet().stream()
+                        .allMatch(version -> BalaRepository.isCompatible(version, latest));
+                conflictCount++;
+                if (!isCompatible) {
+                    incompatibleConflicts++;
+                }
+                conflicts.append("\t").append(dependency.getKey()).append(": ").append(usages).append("\n\t\t")
+                        .append(isCompatible ? "resolves to " + latest : "incompatible versions").append('\n');
+            } else {
+                Map.Entry<String, Set<String>> version = versions.entrySet().iterator().next();
+                if (version.getValue().size() > 1) {
+                    sharedCount++;
+                    shared.append("\t").append(dependency.getKey()).append(":").append(version.getKey())
+                            .append(" (").append(version.getValue().size()).append(" services)\n");
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            outStream.print("\nVersion conflicts:\n" + conflicts);
+        }
+        if (!shared.isEmpty()) {
+            outStream.print("\nShared dependencies:\n" + shared);
+        }
+
+        // The port of the default http listener is only known when the consolidated package is built.
+        ListenerTopology topology = ListenerTopology.of(listeners,
+                (int) ConsolidatorOptions.DEFAULT_LISTENER_PORT);
+        if (!topology.bindings().isEmpty()) {
+            outStream.print("\nListeners:\n" + topology.format());
+        }
+        List<String> listenerConflicts = new ArrayList<>(topology.portConflicts());
+        listenerConflicts.addAll(topology.basePathConflicts());
+        if (!listenerConflicts.isEmpty()) {
+            outStream.println("\nListener conflicts:");
+            for (String conflict : listenerConflicts) {
+                outStream.println("\t" + conflict);
+            }
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        outStream.println("\nAnalyzed " + (services.size() - notFound.size() - invalid.size()) + " services in "
+                + millis + " ms: " + conflictCount + " version conflicts (" + incompatibleConflicts + " incompatible), "
+                + sharedCount + " shared dependencies, " + listenerConflicts.size() + " listener conflicts.");
+        if (incompatibleConflicts > 0) {
+            CommandUtil.printError(this.errStream, "The services cannot be consolidated, as they depend on " +
+                    "incompatible versions of the same packages", null, false);
+            return false;
+        }
+        if (!listenerConflicts.isEmpty()) {
+            CommandUtil.printError(this.errStream, "The services cannot be consolidated, as their listeners " +
+                    "conflict", null, false);
+            return false;
+        }
+        return true;
+    }
+
+    private static void addDependency(Map<String, TreeMap<String, Set<String>>> dependencies, String dependency,
+                                      String version, String service) {
+        dependencies.computeIfAbsent(dependency, key -> new TreeMap<>(
+                        (v1, v2) -> BalaRepository.compare(SemanticVersion.from(v1), SemanticVersion.from(v2))))
+                .computeIfAbsent(version, key -> new TreeSet<>()).add(service);
+    }
+
+    @Override
+    public String getName() {
+        return Util.TOOL_NAME + HYPHEN + ANALYZE;
+    }
+
+    @Override
+    public void printLongDesc(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void printUsage(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void setParentCmdParser(CommandLine commandLine) {
+
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.ballerina.projects.ProjectException;
+import io.ballerina.projects.SemanticVersion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Reads the packages pulled to, or pushed to, the repositories in the Ballerina user home, without loading them as
+ * projects.
+ */
+class BalaRepository {
+    static final String CENTRAL_REPOSITORY = "central.ballerina.io";
+    static final String LOCAL_REPOSITORY = "local";
+    static final String DEPENDENCY_GRAPH_JSON = "dependency-graph.json";
+    static final List<String> REPOSITORIES = List.of(CENTRAL_REPOSITORY, LOCAL_REPOSITORY);
+    private static final List<String> PLATFORMS = List.of("java21", "java17", "any");
+
+    private final Path repositoriesPath;
+
+    BalaRepository(Path ballerinaHome) {
+        this.repositoriesPath = ballerinaHome.resolve("repositories");
+    }
+
+    /**
+     * Returns the repositories in the Ballerina user home.
+     */
+    static BalaRepository fromUserHome() {
+        return new BalaRepository(getBallerinaHome());
+    }
+
+    /**
+     * Returns the Ballerina user home, which can be overridden with the BALLERINA_HOME_DIR environment variable.
+     */
+    static Path getBallerinaHome() {
+        String ballerinaHome = System.getenv("BALLERINA_HOME_DIR");
+        if (ballerinaHome == null || ballerinaHome.isEmpty()) {
+            return Paths.get(System.getProperty("user.home"), ".ballerina");
+        }
+        return Paths.get(ballerinaHome);
+    }
+
+    /**
+     * Returns the directory of the balas in the given repository.
+     */
+    Path getBalaPath(String repository) {
+        return repositoriesPath.resolve(repository).resolve("bala");
+    }
+
+    /**
+     * Returns true if none of the repositories has a package yet.
+     */
+    boolean isEmpty() throws IOException {
+        for (String repository : REPOSITORIES) {
+            Path balaPath = getBalaPath(repository);
+            if (!Files.isDirectory(balaPath)) {
+                continue;
+            }
+            try (Stream<Path> orgPaths = Files.list(balaPath)) {
+                if (orgPaths.findAny().isPresent()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the versions of the given package in all the repositories, in ascending order.
+     */
+    List<String> findVersions(String org, String name) throws IOException {
+        Set<String> versions = new TreeSet<>(
+                (version, other) -> compare(SemanticVersion.from(version), SemanticVersion.from(other)));
+        for (String repository : REPOSITORIES) {
+            Path packagePath = getBalaPath(repository).resolve(org).resolve(name);
+            if (!Files.isDirectory(packagePath)) {
+                continue;
+            }
+            try (Stream<Path> versionPaths = Files.list(packagePath)) {
+                versionPaths.filter(path -> getVersion(path).isPresent())
+                        .forEach(path -> versions.add(path.getFileName().toString()));
+            }
+        }
+        return new ArrayList<>(versions);
+    }
+
+    /**
+     * Finds the latest version of the given package, looking in the central repository cache first and then in the
+     * local repository.
+     *
+     * @return the bala of the package, or empty if the package is not found in any of the repositories
+     */
+    Optional<Bala> find(String org, String name) throws IOException {
+        for (String repository : REPOSITORIES) {
+            Path packagePath = getBalaPath(repository).resolve(org).resolve(name);
+            if (!Files.isDirectory(packagePath)) {
+                continue;
+            }
+            Optional<Path> versionPath;
+            try (Stream<Path> versionPaths = Files.list(packagePath)) {
+                versionPath = versionPaths.filter(path -> getVersion(path).isPresent())
+                        .max(Comparator.comparing(path -> getVersion(path).orElseThrow(), BalaRepository::compare));
+            }
+            if (versionPath.isEmpty()) {
+                continue;
+            }
+            Optional<Bala> bala = getBala(org, name, versionPath.get());
+            if (bala.isPresent()) {
+                return bala;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the given version of the given package, looking in the central repository cache first and then in the
+     * local repository.
+     *
+     * @return the bala of the package, or empty if the version is not found in any of the repositories
+     */
+    Optional<Bala> find(String org, String name, String version) {
+        for (String repository : REPOSITORIES) {
+            Optional<Bala> bala = getBala(org, name, getBalaPath(repository).resolve(org).resolve(name)
+                    .resolve(version));
+            if (bala.isPresent()) {
+                return bala;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the bala of the given service, which is the version the service is pinned to, or the latest version if
+     * it is not pinned.
+     */
+    Optional<Bala> findService(String service) throws IOException {
+        String[] orgAndName = Util.getPackageName(service).split("/", 2);
+        Optional<String> version = Util.getVersion(service);
+        return version.isPresent() ? find(orgAndName[0], orgAndName[1], version.get())
+                : find(orgAndName[0], orgAndName[1]);
+    }
+
+    private static Optional<Bala> getBala(String org, String name, Path versionPath) {
+        for (String platform : PLATFORMS) {
+            Path balaPath = versionPath.resolve(platform);
+            if (Files.isDirectory(balaPath)) {
+                return Optional.of(new Bala(org, name, versionPath.getFileName().toString(), balaPath));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the jars that a version of a package adds to an executable. These are the jars the package was compiled
+     * to, in the compilation caches of the repositories, and the platform libraries packed in its bala.
+     *
+     * @return the jars, or an empty list if the package has not been pulled or compiled
+     */
+    List<Path> findJars(String org, String name, String version) throws IOException {
+        for (String repository : REPOSITORIES) {
+            Path repositoryPath = repositoriesPath.resolve(repository);
+            if (!Files.isDirectory(repositoryPath)) {
+                continue;
+            }
+            List<Path> jars = new ArrayList<>(
+                    findJars(getBalaPath(repository).resolve(org).resolve(name).resolve(version)));
+            // There is a compilation cache per distribution, and the jars of only one of them are counted.
+            List<Path> cachePaths;
+            try (Stream<Path> paths = Files.list(repositoryPath)) {
+                cachePaths = paths.filter(path -> path.getFileName().toString().startsWith("cache-"))
+                        .sorted(Comparator.reverseOrder()).toList();
+            }
+            for (Path cachePath : cachePaths) {
+                List<Path> cachedJars = findJars(cachePath.resolve(org).resolve(name).resolve(version));
+                if (!cachedJars.isEmpty()) {
+                    jars.addAll(cachedJars);
+                    break;
+                }
+            }
+            if (!jars.isEmpty()) {
+                return jars;
+            }
+        }
+        return List.of();
+    }
+
+    private static List<Path> findJars(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            return paths.filter(file -> file.getFileName().toString().endsWith(".jar") && Files.isRegularFile(file))
+                    .toList();
+        }
+    }
+
+    private static Optional<SemanticVersion> getVersion(Path versionPath) {
+        if (!Files.isDirectory(versionPath)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(SemanticVersion.from(versionPath.getFileName().toString()));
+        } catch (ProjectException e) {
+            return Optional.empty();
+        }
+    }
+
+    static int compare(SemanticVersion version, SemanticVersion other) {
+        if (version.greaterThan(other)) {
+            return 1;
+        }
+        return other.greaterThan(version) ? -1 : 0;
+    }
+
+    /**
+     * Returns whether two versions of a package can be resolved to the latest of them. Versions with different major
+     * versions, or different minor versions before 1.0.0, are incompatible.
+     */
+    static boolean isCompatible(String version, String other) {
+        SemanticVersion semVer = SemanticVersion.from(version);
+        SemanticVersion otherSemVer = SemanticVersion.from(other);
+        if (semVer.major() != otherSemVer.major()) {
+            return false;
+        }
+        return semVer.major() != 0 || semVer.minor() == otherSemVer.minor();
+    }
+
+    /**
+     * A package in one of the repositories.
+     *
+     * @param org     organization of the package
+     * @param name    name of the package
+     * @param version version of the package
+     * @param path    platform directory of the extracted bala
+     */
+    record Bala(String org, String name, String version, Path path) {
+
+        String qualifiedName() {
+            return org + "/" + name;
+        }
+
+        /**
+         * Reads the resolved dependency graph that was written to the bala when the package was built.
+         */
+        DependencyGraph readDependencyGraph() throws IOException {
+            Path dependencyGraphPath = path.resolve(DEPENDENCY_GRAPH_JSON);
+            if (!Files.isRegularFile(dependencyGraphPath)) {
+                return new DependencyGraph(List.of(), Set.of());
+            }
+            JsonObject dependencyGraph;
+            try {
+                dependencyGraph = JsonParser.parseString(Files.readString(dependencyGraphPath)).getAsJsonObject();
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new IOException("invalid " + DEPENDENCY_GRAPH_JSON + " in '" + path + "'", e);
+            }
+
+            List<PackageDependency> packages = new ArrayList<>();
+            if (dependencyGraph.has("packages")) {
+                for (JsonElement element : dependencyGraph.getAsJsonArray("packages")) {
+                    JsonObject dependency = element.getAsJsonObject();
+                    String depOrg = dependency.get("org").getAsString();
+                    String depName = dependency.get("name").getAsString();
+                    if (org.equals(depOrg) && name.equals(depName)) {
+                        continue;
+                    }
+                    List<String> dependencies = new ArrayList<>();
+                    if (dependency.has("dependencies")) {
+                        for (JsonElement transitive : dependency.getAsJsonArray("dependencies")) {
+                            JsonObject transitiveDependency = transitive.getAsJsonObject();
+                            dependencies.add(transitiveDependency.get("org").getAsString() + "/"
+                                    + transitiveDependency.get("name").getAsString());
+                        }
+                    }
+                    packages.add(new PackageDependency(depOrg, depName, dependency.get("version").getAsString(),
+                            dependency.has("transitive") && dependency.get("transitive").getAsBoolean(),
+                            dependencies));
+                }
+            }
+            Set<ModuleId> modules = new LinkedHashSet<>();
+            if (dependencyGraph.has("modules")) {
+                for (JsonElement element : dependencyGraph.getAsJsonArray("modules")) {
+                    JsonObject module = element.getAsJsonObject();
+                    modules.add(getModuleId(module));
+                    if (module.has("dependencies")) {
+                        for (JsonElement dependency : module.getAsJsonArray("dependencies")) {
+                            modules.add(getModuleId(dependency.getAsJsonObject()));
+                        }
+                    }
+                }
+            }
+            return new DependencyGraph(packages, modules);
+        }
+
+        private static ModuleId getModuleId(JsonObject module) {
+            return new ModuleId(module.get("org").getAsString(), module.get("package_name").getAsString(),
+                    module.get("module_name").getAsString());
+        }
+    }
+
+    /**
+     * Resolved dependencies of a package.
+     *
+     * @param packages the packages the package depends on, directly or transitively
+     * @param modules  the modules of the package and the modules they import
+     */
+    record DependencyGraph(List<PackageDependency> packages, Set<ModuleId> modules) {
+    }
+
+    /**
+     * A package in the resolved dependency graph of another package.
+     *
+     * @param org          organization of the package
+     * @param name         name of the package
+     * @param version      resolved version of the package
+     * @param transitive   whether the package is only a transitive dependency
+     * @param dependencies the packages the package directly depends on, as org/name, if recorded in the graph
+     */
+    record PackageDependency(String org, String name, String version, boolean transitive,
+                             List<String> dependencies) {
+
+        String qualifiedName() {
+            return org + "/" + name;
+        }
+    }
+
+    record ModuleId(String org, String packageName, String moduleName) {
+
+        String packageQualifiedName() {
+            return org + "/" + packageName;
+        }
+    }
+}
@@ -17,9 +17,12 @@
  */
 package io.ballerina.consolidate;
 
+import io.ballerina.projects.PackageManifest;
+import io.ballerina.projects.ProjectException;
 import io.ballerina.projects.buildtools.CodeGeneratorTool;
 import io.ballerina.projects.buildtools.ToolConfig;
 import io.ballerina.projects.buildtools.ToolContext;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
 import io.ballerina.tools.diagnostics.DiagnosticFactory;
 import io.ballerina.tools.diagnostics.DiagnosticInfo;
 import io.ballerina.tools.diagnostics.DiagnosticSeverity;
@@ -29,18 +32,47 @@ import io.ballerina.tools.text.LineRange;
 import io.ballerina.tools.text.TextRange;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
 
 @ToolConfig(name = Util.TOOL_NAME)
 public class CodeGenerator implements CodeGeneratorTool {
+    static final String CONSOLIDATOR_BAL = "consolidator.bal";
+    static final String CONSOLIDATOR_MAIN_BAL = "consolidator_main.bal";
+    static final String CONFIG_TOML = "Config.toml";
+    static final String JVM_ARGS = "jvm.args";
+    static final String FINGERPRINT_FILE = ".consolidator.fingerprint";
+    private static final String HEALTH_LISTENER_OWNER = "consolidator";
+    private static final String CONFIG_TOML_HEADER = """
+            # AUTO-GENERATED FILE. DO NOT MODIFY.
+
+            # Runtime configuration of the consolidated services, generated from the tool options.
+            # Add this file to BAL_CONFIG_FILES when running the consolidated executable.
+
+            """;
 
     @Override
     public void execute(ToolContext toolContext) {
         toolContext.println("Running  build tool: " + toolContext.toolId());
 
-        if (!toolContext.options().containsKey("services")) {
+        Optional<TomlTableNode> optionsTable = getOptionsTable(toolContext);
+        if (!toolContext.options().containsKey("services") || optionsTable.isEmpty()) {
             DiagnosticInfo diagnosticInfo = new DiagnosticInfo(
                 "BTCE001", "No services provided in 'options' to generate the consolidator package",
                     DiagnosticSeverity.ERROR);
@@ -48,24 +80,33 @@ public class CodeGenerator implements CodeGeneratorTool {
             return;
         }
 
-        List<?> services = (ArrayList<?>) toolContext.options().get("services").value();
-        StringBuilder stringBuilder = new StringBuilder();
-        for (Object serviceObj : services) {
-            String service = (String) serviceObj;
-            stringBuilder.append("import ").append(service).append(" as _;\n");
+        ConsolidatorOptions options = ConsolidatorOptions.from(optionsTable.get());
+        List<String> errors = options.validate();
+        for (String error : errors) {
+            DiagnosticInfo diagnosticInfo = new DiagnosticInfo("BTCE003", error, DiagnosticSeverity.ERROR);
+            toolContext.reportDiagnostic(DiagnosticFactory.createDiagnostic(diagnosticInfo, new NullLocation()));
         }
+        if (!errors.isEmpty()) {
+            return;
+        }
+        checkPinnedServices(toolContext, options);
+        // The listeners are checked on every build, including the builds that reuse the generated sources, as a
+        // version of a service pulled since the last build can change them.
+        checkListeners(toolContext, options);
+        Map<String, String> sources = generateSources(options);
         try {
-            Files.createDirectories(toolContext.outputPath());
-            Files.writeString(toolContext.outputPath().resolve("consolidator.bal"), stringBuilder);
-
-            String consolidatorMainBal = """
-                import ballerina/log;
-                
-                public function main() {
-                    log:printInfo("Started all services");
+            if (writeSources(toolContext.outputPath(), sources)) {
+                if (sources.containsKey(CONFIG_TOML)) {
+                    toolContext.println("Generated the runtime configuration of the consolidated services at '"
+                            + toolContext.outputPath().resolve(CONFIG_TOML) + "'. Add it to BAL_CONFIG_FILES when "
+                            + "running the executable.");
+                }
+                if (sources.containsKey(JVM_ARGS)) {
+                    toolContext.println("Generated the JVM options of the consolidated executable at '"
+                            + toolContext.outputPath().resolve(JVM_ARGS) + "'. Pass it to java as '@"
+                            + toolContext.outputPath().resolve(JVM_ARGS) + "' when running the executable.");
                 }
-                """;
-            Files.writeString(toolContext.outputPath().resolve("consolidator_main.bal"), consolidatorMainBal);
+            }
         } catch (IOException e) {
             DiagnosticInfo diagnosticInfo = new DiagnosticInfo(
                 "BTCE002", "Error occurred while generating code", DiagnosticSeverity.ERROR);
@@ -73,6 +114,315 @@ public class CodeGenerator implements CodeGeneratorTool {
         }
     }
 
+    private static Optional<TomlTableNode> getOptionsTable(ToolContext toolContext) {
+        for (PackageManifest.Tool tool : toolContext.currentPackage().manifest().tools()) {
+            if (Util.TOOL_NAME.equals(tool.type().value()) && toolContext.toolId().equals(tool.id().value())) {
+                return Optional.ofNullable(tool.optionsTable());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Warns about the listeners of the services that would fail to bind in the consolidated process. The listeners are
+     * read from the balas of the versions the services are pinned to, or else the latest versions, in the local
+     * repositories. These need not be the versions that the build resolves, so the conflicts are reported as warnings,
+     * and the analyze command fails on them instead. Services that have not been pulled yet are not checked.
+     */
+    private static void checkListeners(ToolContext toolContext, ConsolidatorOptions options) {
+        ListenerTopology topology;
+        try {
+            topology = getListenerTopology(options, BalaRepository.fromUserHome());
+        } catch (IOException e) {
+            // The check is best effort, and the build continues without it.
+            return;
+        }
+        for (String conflict : topology.portConflicts()) {
+            DiagnosticInfo diagnosticInfo = new DiagnosticInfo("BTCE004", conflict, DiagnosticSeverity.WARNING);
+            toolContext.reportDiagnostic(DiagnosticFactory.createDiagnostic(diagnosticInfo, new NullLocation()));
+        }
+        for (String conflict : topology.basePathConflicts()) {
+            DiagnosticInfo diagnosticInfo = new DiagnosticInfo("BTCE005", conflict, DiagnosticSeverity.WARNING);
+            toolContext.reportDiagnostic(DiagnosticFactory.createDiagnostic(diagnosticInfo, new NullLocation()));
+        }
+    }
+
+    /**
+     * Warns about the services pinned to a version that the build may not resolve them to.
+     */
+    private static void checkPinnedServices(ToolContext toolContext, ConsolidatorOptions options) {
+        Set<String> dependencies = new HashSet<>();
+        for (PackageManifest.Dependency dependency : toolContext.currentPackage().manifest().dependencies()) {
+            dependencies.add(dependency.org().value() + "/" + dependency.name().value() + Util.VERSION_SEPARATOR
+                    + dependency.version());
+        }
+        DependencyLock lock;
+        try {
+            lock = DependencyLock.read(toolContext.currentPackage().project().sourceRoot());
+        } catch (IOException | ProjectException e) {
+            lock = null;
+        }
+        for (String warning : getPinWarnings(options.services(), dependencies, lock)) {
+            DiagnosticInfo diagnosticInfo = new DiagnosticInfo("BTCE006", warning, DiagnosticSeverity.WARNING);
+            toolContext.reportDiagnostic(DiagnosticFactory.createDiagnostic(diagnosticInfo, new NullLocation()));
+        }
+    }
+
+    /**
+     * Returns a warning for each pinned service without a [[dependency]] entry for the version in the Ballerina.toml,
+     * which is then resolved like a service that is not pinned, and for each pinned service locked to another version
+     * in the Dependencies.toml. A [[dependency]] entry is only the minimum version of the service, so a build that is
+     * not sticky may resolve a newer version and lock it. The entries and the lock are written by the add, remove and
+     * new commands.
+     *
+     * @param services     services of the package
+     * @param dependencies the [[dependency]] entries in the Ballerina.toml, as org/name:version
+     * @param lock         the Dependencies.toml of the package, or null if it cannot be read
+     */
+    static List<String> getPinWarnings(Collection<String> services, Set<String> dependencies, DependencyLock lock) {
+        List<String> warnings = new ArrayList<>();
+        for (String service : services) {
+            Optional<String> version = Util.getVersion(service);
+            if (version.isEmpty()) {
+                continue;
+            }
+            if (!dependencies.contains(service)) {
+                warnings.add("service '" + service + "' is pinned to a version without a [[dependency]] entry for it "
+                        + "in the " + Util.BALLERINA_TOML);
+                continue;
+            }
+            Optional<String> locked = lock == null ? Optional.empty() : lock.getVersion(Util.getPackageName(service));
+            if (locked.isPresent() && !locked.get().equals(version.get())) {
+                warnings.add("service '" + service + "' is locked to version " + locked.get() + " in the "
+                        + DependencyLock.DEPENDENCIES_TOML + ". Add the service again to lock the pinned version, and "
+                        + "build with '--sticky' to keep it");
+            }
+        }
+        return warnings;
+    }
+
+    static ListenerTopology getListenerTopology(ConsolidatorOptions options, BalaRepository repository)
+            throws IOException {
+        Map<String, List<ListenerScanner.Listener>> listeners = new HashMap<>();
+        for (String service : options.services()) {
+            Optional<BalaRepository.Bala> bala = repository.findService(service);
+            if (bala.isPresent()) {
+                listeners.put(service, ListenerScanner.scanBala(bala.get().path()));
+            }
+        }
+        options.health().ifPresent(health -> listeners.put(HEALTH_LISTENER_OWNER, List.of(new ListenerScanner.Listener(
+                "healthListener", "http:Listener", Optional.of((int) health.port()), false, List.of(health.path())))));
+        return ListenerTopology.of(listeners, (int) options.defaultListenerPort());
+    }
+
+    static Map<String, String> generateSources(ConsolidatorOptions options) {
+        // Services are emitted in a canonical order so that the generated sources only change when the set of
+        // services changes.
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String service : options.services()) {
+            // The version of a pinned service is resolved from its [[dependency]] entry, not from the import.
+            stringBuilder.append("import ").append(Util.getPackageName(service)).append(" as _;\n");
+        }
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put(CONSOLIDATOR_BAL, stringBuilder.toString());
+        sources.put(CONSOLIDATOR_MAIN_BAL, generateMainBal(options));
+
+        StringBuilder config = new StringBuilder();
+        if (options.sharedListeners()) {
+            // Services that attach to http:getDefaultListener() already share one listener instance in the
+            // executable, so the option only moves that listener to the configured port.
+            config.append("[ballerina.http]\n")
+                    .append("defaultListenerPort = ").append(options.defaultListenerPort()).append("\n");
+        }
+        options.gracefulStopTimeout().ifPresent(timeout -> {
+            // The timeout of the graceful stop of the default listener. Only the default listener can be configured
+            // here, as the other listeners are configured by their services.
+            config.append(config.isEmpty() ? "" : "\n").append("[ballerina.http.defaultListenerConfig]\n")
+                    .append("gracefulStopTimeout = ").append(timeout).append("\n");
+        });
+        options.observability().ifPresent(observability -> {
+            // The metrics and spans of the consolidated services are already tagged with the module that they are
+            // emitted from, so they can be told apart by service without generating any code for them.
+            config.append(config.isEmpty() ? "" : "\n").append("[ballerina.observe]\n");
+            observability.metricsReporter().ifPresent(reporter -> config.append("metricsEnabled = true\n")
+                    .append("metricsReporter = \"").append(reporter).append("\"\n"));
+            observability.tracingProvider().ifPresent(provider -> config.append("tracingEnabled = true\n")
+                    .append("tracingProvider = \"").append(provider).append("\"\n"));
+            observability.samplingRate().ifPresent(rate -> config.append("\n[ballerinax.")
+                    .append(observability.tracingProvider().orElseThrow()).append("]\n")
+                    .append("samplerType = \"probabilistic\"\n")
+                    .append("samplerParam = ").append(BigDecimal.valueOf(rate).toPlainString()).append("\n"));
+        });
+        if (!config.isEmpty()) {
+            sources.put(CONFIG_TOML, CONFIG_TOML_HEADER + config);
+        }
+        // The scheduler and heap are configured through JVM options rather than Config.toml, as they have to be set
+        // before the runtime starts. The file is a java argument file, which does not support comments.
+        options.runtime().ifPresent(runtime -> {
+            StringBuilder jvmArgs = new StringBuilder();
+            runtime.initialHeapSizeMb().ifPresent(size -> jvmArgs.append("-Xms").append(size).append("m\n"));
+            runtime.maxHeapSizeMb().ifPresent(size -> jvmArgs.append("-Xmx").append(size).append("m\n"));
+            runtime.parallelism().ifPresent(parallelism -> jvmArgs
+                    .append("-Djdk.virtualThreadScheduler.parallelism=").append(parallelism).append('\n'));
+            runtime.maxPoolSize().ifPresent(maxPoolSize -> jvmArgs
+                    .append("-Djdk.virtualThreadScheduler.maxPoolSize=").append(maxPoolSize).append('\n'));
+            if (!jvmArgs.isEmpty()) {
+                sources.put(JVM_ARGS, jvmArgs.toString());
+            }
+        });
+        return sources;
+    }
+
+    /**
+     * Generates the main function of the consolidator. Module initialization of all the consolidated services
+     * completes before main is invoked, so main records the time from the start of the JVM to main, and optionally
+     * writes it to a startup report. The listeners of the services are only started after main returns, so this is
+     * not the time until the services accept requests. The modules of the services are initialized before any
+     * generated code runs, and in the order of their dependencies rather than their imports, so the time taken by
+     * each service cannot be recorded either. The optional health listener is declared next to main.
+     */
+    private static String generateMainBal(ConsolidatorOptions options) {
+        Set<String> imports = new TreeSet<>(List.of("ballerina/jballerina.java", "ballerina/log"));
+        StringBuilder declarations = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+
+        StringJoiner services = new StringJoiner(", ", "[", "]");
+        for (String service : options.services()) {
+            services.add("\"" + service + "\"");
+        }
+        declarations.append("final readonly & string[] consolidatedServices = ").append(services).append(";\n\n");
+        body.append("""
+                    int timeToMainMillis = getUptimeMillis(getRuntimeMXBean());
+                    log:printInfo("Initialized all services", services = consolidatedServices.length(),
+                            timeToMainMillis = timeToMainMillis);
+                """);
+        options.startupReport().ifPresent(startupReport -> {
+            imports.add("ballerina/io");
+            imports.add("ballerina/time");
+            body.append("""
+                        json startupReport = {
+                            services: consolidatedServices,
+                            timeToMainMillis,
+                            startedAt: time:utcToString(time:utcNow())
+                        };
+                        io:Error? reportResult = io:fileWriteJson("%s", startupReport);
+                        if reportResult is io:Error {
+                            log:printError("Failed to write the startup report", reportResult);
+                        }
+                    """.formatted(escape(startupReport)));
+        });
+        // The observability extensions are only included in the executable when they are imported.
+        options.observability().ifPresent(observability -> {
+            observability.metricsReporter().ifPresent(reporter -> imports.add("ballerinax/" + reporter + " as _"));
+            observability.tracingProvider().ifPresent(provider -> imports.add("ballerinax/" + provider + " as _"));
+        });
+        options.health().ifPresent(health -> {
+            imports.add("ballerina/http");
+            // Like every module listener, the health listener is only started after main returns, so a probe cannot
+            // be answered before the modules of all the services are initialized, and both endpoints answer with the
+            // same response. It is created once, so that a probe returns an existing immutable value.
+            declarations.append("""
+                    final readonly & http:Ok upResponse = {body: {status: "UP"}};
+
+                    listener http:Listener healthListener = new (%d);
+
+                    isolated service "%s" on healthListener {
+                        isolated resource function get live() returns http:Ok {
+                            return upResponse;
+                        }
+
+                        isolated resource function get ready() returns http:Ok {
+                            return upResponse;
+                        }
+                    }
+
+                    """.formatted(health.port(), escape(health.path())));
+        });
+
+        StringBuilder mainBal = new StringBuilder();
+        for (String moduleImport : imports) {
+            mainBal.append("import ").append(moduleImport).append(";\n");
+        }
+        mainBal.append('\n').append(declarations)
+                .append("public function main() {\n").append(body).append("}\n")
+                .append("""
+
+                        isolated function getRuntimeMXBean() returns handle = @java:Method {
+                            'class: "java.lang.management.ManagementFactory"
+                        } external;
+
+                        isolated function getUptimeMillis(handle runtimeMXBean) returns int = @java:Method {
+                            'class: "java.lang.management.RuntimeMXBean",
+                            name: "getUptime"
+                        } external;
+                        """);
+        return mainBal.toString();
+    }
+
+    /**
+     * Escapes the given value to be used within a Ballerina string literal.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Writes the generated sources to the output directory unless the fingerprint stored next to them shows that
+     * they are already up to date. Skipping the write keeps the file modification times intact so that the
+     * incremental caches of the compiler are not invalidated.
+     *
+     * @return true if the sources were written
+     */
+    static boolean writeSources(Path outputPath, Map<String, String> sources) throws IOException {
+        String fingerprint = fingerprint(sources);
+        Path fingerprintPath = outputPath.resolve(FINGERPRINT_FILE);
+        List<String> previousFiles = List.of();
+        if (Files.isRegularFile(fingerprintPath)) {
+            List<String> lines = Files.readAllLines(fingerprintPath);
+            if (!lines.isEmpty()) {
+                previousFiles = lines.subList(1, lines.size());
+                if (lines.getFirst().equals(fingerprint) && sources.keySet().stream()
+                        .allMatch(fileName -> Files.isRegularFile(outputPath.resolve(fileName)))) {
+                    return false;
+                }
+            }
+        }
+
+        Files.createDirectories(outputPath);
+        for (String previousFile : previousFiles) {
+            if (!sources.containsKey(previousFile)) {
+                Files.deleteIfExists(outputPath.resolve(previousFile));
+            }
+        }
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Files.writeString(outputPath.resolve(source.getKey()), source.getValue());
+        }
+        List<String> fingerprintLines = new ArrayList<>();
+        fingerprintLines.add(fingerprint);
+        fingerprintLines.addAll(sources.keySet());
+        Files.write(fingerprintPath, fingerprintLines);
+        return true;
+    }
+
+    /**
+     * Computes a content hash of the generated sources, which are a pure function of the resolved tool options.
+     */
+    static String fingerprint(Map<String, String> sources) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            digest.update(source.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source.getValue().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     // TODO: Remove the null location once the location is supported in toolContext#options
     private static class NullLocation implements Location {
 
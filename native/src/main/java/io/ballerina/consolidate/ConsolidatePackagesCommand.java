@@ -23,7 +23,8 @@ import picocli.CommandLine;
 import java.io.PrintStream;
 
 @CommandLine.Command(name = Util.TOOL_NAME,
-        subcommands = {NewSubCommand.class, AddSubCommand.class, RemoveSubCommand.class},
+        subcommands = {NewSubCommand.class, AddSubCommand.class, RemoveSubCommand.class, FleetSubCommand.class,
+                AnalyzeSubCommand.class, FootprintSubCommand.class, WatchSubCommand.class, ShardSubCommand.class},
         description = "Generates a Ballerina consolidator project for the given package"
 )
 public class ConsolidatePackagesCommand implements BLauncherCmd {
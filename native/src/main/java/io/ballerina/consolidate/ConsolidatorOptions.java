@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Options of a consolidate-packages tool entry, resolved with their defaults.
+ */
+class ConsolidatorOptions {
+    static final long DEFAULT_LISTENER_PORT = 9090;
+    static final String DEFAULT_HEALTH_PATH = "/health";
+    static final Set<String> SAMPLING_TRACING_PROVIDERS = Set.of("jaeger", "zipkin");
+
+    private final Set<String> services;
+    private final boolean sharedListeners;
+    private final Long sharedListenerPort;
+    private final String startupReport;
+    private final TomlTableNode runtime;
+    private final Long gracefulStopTimeout;
+    private final TomlTableNode health;
+    private final TomlTableNode observability;
+
+    private ConsolidatorOptions(TomlTableNode optionsTable) {
+        this.services = Util.getServices(optionsTable);
+        this.sharedListeners = Util.getBoolean(optionsTable, "sharedListeners").orElse(false);
+        this.sharedListenerPort = Util.getLong(optionsTable, "sharedListenerPort").orElse(null);
+        this.startupReport = Util.getString(optionsTable, "startupReport").orElse(null);
+        this.runtime = Util.getTable(optionsTable, "runtime").orElse(null);
+        this.gracefulStopTimeout = Util.getLong(optionsTable, "gracefulStopTimeout").orElse(null);
+        this.health = Util.getTable(optionsTable, "health").orElse(null);
+        this.observability = Util.getTable(optionsTable, "observability").orElse(null);
+    }
+
+    static ConsolidatorOptions from(TomlTableNode optionsTable) {
+        return new ConsolidatorOptions(optionsTable);
+    }
+
+    /**
+     * Returns the services in their canonical (sorted) order.
+     */
+    Set<String> services() {
+        return services;
+    }
+
+    boolean sharedListeners() {
+        return sharedListeners;
+    }
+
+    /**
+     * Returns the port of the http default listener. The services that attach to the default listener share it
+     * whether or not 'sharedListeners' is set, and the option only moves it from its default port.
+     */
+    long defaultListenerPort() {
+        return sharedListeners && sharedListenerPort != null ? sharedListenerPort : DEFAULT_LISTENER_PORT;
+    }
+
+    /**
+     * Validates the options that the tool options schema cannot validate on its own.
+     *
+     * @return the validation errors
+     */
+    List<String> validate() {
+        List<String> errors = new ArrayList<>();
+        Set<String> packageNames = new HashSet<>();
+        for (String service : services) {
+            if (!packageNames.add(Util.getPackageName(service))) {
+                errors.add("service '" + Util.getPackageName(service) + "' is listed more than once in 'services'");
+            }
+        }
+        if (sharedListeners && sharedListenerPort == null) {
+            errors.add("'sharedListenerPort' is required with 'sharedListeners', as the default listener is already "
+                    + "shared on port " + DEFAULT_LISTENER_PORT);
+        }
+        if (health != null) {
+            Optional<Long> healthPort = Util.getLong(health, "port");
+            if (healthPort.isEmpty()) {
+                errors.add("'health.port' is required to enable the health listener");
+            } else if (sharedListeners && healthPort.get().equals(sharedListenerPort)) {
+                errors.add("'health.port' should not be the same as the 'sharedListenerPort'");
+            }
+        }
+        observability().ifPresent(observability -> {
+            if (observability.samplingRate().isPresent() && !observability.tracingProvider()
+                    .map(SAMPLING_TRACING_PROVIDERS::contains).orElse(false)) {
+                errors.add("'observability.samplingRate' requires 'observability.tracingProvider' to be one of "
+                        + String.join(", ", new TreeSet<>(SAMPLING_TRACING_PROVIDERS)));
+            }
+        });
+        runtime().ifPresent(runtime -> {
+            if (runtime.initialHeapSizeMb().isPresent() && runtime.maxHeapSizeMb().isPresent()
+                    && runtime.initialHeapSizeMb().get() > runtime.maxHeapSizeMb().get()) {
+                errors.add("'runtime.initialHeapSizeMb' should not be greater than 'runtime.maxHeapSizeMb'");
+            }
+            if (runtime.parallelism().isPresent() && runtime.maxPoolSize().isPresent()
+                    && runtime.parallelism().get() > runtime.maxPoolSize().get()) {
+                errors.add("'runtime.parallelism' should not be greater than 'runtime.maxPoolSize'");
+            }
+        });
+        return errors;
+    }
+
+    /**
+     * Returns the path of the startup report written by the consolidated executable, if enabled.
+     */
+    Optional<String> startupReport() {
+        return Optional.ofNullable(startupReport);
+    }
+
+    /**
+     * Returns the time in seconds that the default http listener waits for the requests in flight when the
+     * consolidated executable is stopped, if configured.
+     */
+    Optional<Long> gracefulStopTimeout() {
+        return Optional.ofNullable(gracefulStopTimeout);
+    }
+
+    /**
+     * Returns the health listener of the consolidated executable, if enabled.
+     */
+    Optional<HealthOptions> health() {
+        if (health == null) {
+            return Optional.empty();
+        }
+        return Util.getLong(health, "port").map(port -> new HealthOptions(port,
+                Util.getString(health, "path").orElse(DEFAULT_HEALTH_PATH)));
+    }
+
+    /**
+     * Returns the observability of the consolidated executable, if configured.
+     */
+    Optional<ObservabilityOptions> observability() {
+        if (observability == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ObservabilityOptions(Util.getString(observability, "metricsReporter"),
+                Util.getString(observability, "tracingProvider"), Util.getDouble(observability, "samplingRate")));
+    }
+
+    /**
+     * Returns the runtime tuning of the consolidated executable, if enabled. Only the configured values are set, and
+     * the rest is left to the JVM. The JVM sizes the default maximum heap to the memory available where the
+     * executable runs, which a size derived from the number of services could only bring below that default, and
+     * sizes the scheduler to the cores available, as the number of services does not change the number of cores.
+     */
+    Optional<RuntimeOptions> runtime() {
+        if (runtime == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RuntimeOptions(Util.getLong(runtime, "parallelism"),
+                Util.getLong(runtime, "maxPoolSize"), Util.getLong(runtime, "initialHeapSizeMb"),
+                Util.getLong(runtime, "maxHeapSizeMb")));
+    }
+
+    /**
+     * Resolved runtime tuning of the consolidated executable.
+     *
+     * @param parallelism       number of carrier threads of the virtual thread scheduler, if configured
+     * @param maxPoolSize       maximum number of carrier threads of the virtual thread scheduler, if configured
+     * @param initialHeapSizeMb initial heap size in megabytes, if configured
+     * @param maxHeapSizeMb     maximum heap size in megabytes, if configured
+     */
+    record RuntimeOptions(Optional<Long> parallelism, Optional<Long> maxPoolSize, Optional<Long> initialHeapSizeMb,
+                          Optional<Long> maxHeapSizeMb) {
+    }
+
+    /**
+     * Resolved health listener of the consolidated executable.
+     *
+     * @param port port of the health listener
+     * @param path base path of the health service
+     */
+    record HealthOptions(long port, String path) {
+    }
+
+    /**
+     * Resolved observability of the consolidated executable.
+     *
+     * @param metricsReporter extension that reports the metrics, if metrics are enabled
+     * @param tracingProvider extension that publishes the traces, if tracing is enabled
+     * @param samplingRate    probability of sampling a trace, if configured
+     */
+    record ObservabilityOptions(Optional<String> metricsReporter, Optional<String> tracingProvider,
+                                Optional<Double> samplingRate) {
+    }
+}
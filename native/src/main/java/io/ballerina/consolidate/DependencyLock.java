@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.projects.SemanticVersion;
+import io.ballerina.projects.TomlDocument;
+import io.ballerina.projects.util.RepoUtils;
+import io.ballerina.toml.semantic.TomlType;
+import io.ballerina.toml.semantic.ast.TomlArrayValueNode;
+import io.ballerina.toml.semantic.ast.TomlInlineTableValueNode;
+import io.ballerina.toml.semantic.ast.TomlKeyValueNode;
+import io.ballerina.toml.semantic.ast.TomlTableArrayNode;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+import io.ballerina.toml.semantic.ast.TomlValueNode;
+import io.ballerina.toml.semantic.ast.TopLevelNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The Dependencies.toml of a consolidator package, merged from the dependency graphs the services were built with.
+ * <p>
+ * All the services share a single version of each package in the consolidated executable. The version locked for a
+ * package is the highest of the versions that the services and the existing Dependencies.toml are locked to, which is
+ * the version the dependency resolution picks when the versions are compatible. A package that the services depend on
+ * with incompatible versions is not locked, as no single version of it satisfies all the services. With the versions
+ * locked up front, the first build of the consolidator package does not have to resolve the dependencies of the
+ * services from scratch.
+ */
+class DependencyLock {
+    static final String DEPENDENCIES_TOML = "Dependencies.toml";
+    private static final String DEPENDENCIES_TOML_VERSION = "2";
+    private static final String HEADER = """
+            # AUTO-GENERATED FILE. DO NOT MODIFY.
+
+            # This file is auto-generated by Ballerina for managing dependency versions.
+            # It should not be modified by hand.
+
+            """;
+    private static final Comparator<BalaRepository.ModuleId> MODULE_ORDER = Comparator
+            .comparing(BalaRepository.ModuleId::org).thenComparing(BalaRepository.ModuleId::packageName)
+            .thenComparing(BalaRepository.ModuleId::moduleName);
+
+    private final String dependenciesTomlVersion;
+    private final String distributionVersion;
+    // org/name -> the locked package, in the order the packages are written
+    private final Map<String, LockedPackage> packages;
+    // org/name of the services merged into the lock, which are the packages the consolidator package imports
+    private final Set<String> servicePackages = new TreeSet<>();
+    // org/name of the packages that are not locked, as the services depend on incompatible versions of them
+    private final Set<String> conflicts = new TreeSet<>();
+
+    private DependencyLock(String dependenciesTomlVersion, String distributionVersion,
+                           Map<String, LockedPackage> packages) {
+        this.dependenciesTomlVersion = dependenciesTomlVersion;
+        this.distributionVersion = distributionVersion;
+        this.packages = packages;
+    }
+
+    /**
+     * Reads the Dependencies.toml of the given package, or returns an empty lock if it does not have one yet.
+     */
+    static DependencyLock read(Path packageRoot) throws IOException {
+        Path dependenciesTomlPath = packageRoot.resolve(DEPENDENCIES_TOML);
+        Map<String, LockedPackage> packages = new TreeMap<>();
+        if (!Files.isRegularFile(dependenciesTomlPath)) {
+            return new DependencyLock(DEPENDENCIES_TOML_VERSION, RepoUtils.getBallerinaShortVersion(), packages);
+        }
+
+        TomlTableNode rootNode = TomlDocument.from(DEPENDENCIES_TOML, Files.readString(dependenciesTomlPath)).toml()
+                .rootNode();
+        Optional<TomlTableNode> ballerina = Util.getTable(rootNode, "ballerina");
+        TopLevelNode packagesNode = rootNode.entries().get("package");
+        if (packagesNode != null && packagesNode.kind() == TomlType.TABLE_ARRAY) {
+            for (TomlTableNode packageNode : ((TomlTableArrayNode) packagesNode).children()) {
+                Optional<String> org = Util.getString(packageNode, "org");
+                Optional<String> name = Util.getString(packageNode, "name");
+                Optional<String> version = Util.getString(packageNode, "version");
+                if (org.isEmpty() || name.isEmpty() || version.isEmpty()) {
+                    continue;
+                }
+                Set<String> dependencies = new TreeSet<>();
+                for (TomlTableNode dependency : getInlineTables(packageNode, "dependencies")) {
+                    dependencies.add(Util.getString(dependency, "org").orElse("") + "/"
+                            + Util.getString(dependency, "name").orElse(""));
+                }
+                Set<BalaRepository.ModuleId> modules = new TreeSet<>(MODULE_ORDER);
+                for (TomlTableNode module : getInlineTables(packageNode, "modules")) {
+                    modules.add(new BalaRepository.ModuleId(Util.getString(module, "org").orElse(""),
+                            Util.getString(module, "packageName").orElse(""),
+                            Util.getString(module, "moduleName").orElse("")));
+                }
+                packages.put(org.get() + "/" + name.get(), new LockedPackage(org.get(), name.get(), version.get(),
+                        Util.getString(packageNode, "scope"), dependencies, modules));
+            }
+        }
+        return new DependencyLock(
+                ballerina.flatMap(table -> Util.getString(table, "dependencies-toml-version"))
+                        .orElse(DEPENDENCIES_TOML_VERSION),
+                ballerina.flatMap(table -> Util.getString(table, "distribution-version"))
+                        .orElse(RepoUtils.getBallerinaShortVersion()), packages);
+    }
+
+    private static List<TomlTableNode> getInlineTables(TomlTableNode tomlTableNode, String key) {
+        List<TomlTableNode> tables = new ArrayList<>();
+        TopLevelNode arrayNode = tomlTableNode.entries().get(key);
+        if (arrayNode != null && arrayNode.kind() == TomlType.KEY_VALUE
+                && ((TomlKeyValueNode) arrayNode).value().kind() == TomlType.ARRAY) {
+            for (TomlValueNode value : ((TomlArrayValueNode) ((TomlKeyValueNode) arrayNode).value()).elements()) {
+                if (value.kind() == TomlType.INLINE_TABLE) {
+                    tables.add(((TomlInlineTableValueNode) value).toTable());
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Merges the dependency graphs of the given services, as found in the repositories, into the lock. A service
+     * pinned to a version is locked to that version, whatever the versions of it the other services depend on.
+     *
+     * @return the services that were not found in the repositories
+     */
+    List<String> merge(Collection<String> services, BalaRepository repository) throws IOException {
+        Map<String, String> pins = new TreeMap<>();
+        for (String service : services) {
+            Util.getVersion(service).ifPresent(version -> pins.put(Util.getPackageName(service), version));
+        }
+        List<String> notFound = new ArrayList<>();
+        for (String service : services) {
+            Optional<BalaRepository.Bala> bala = repository.findService(service);
+            if (bala.isEmpty()) {
+                notFound.add(service);
+                continue;
+            }
+            String qualifiedName = bala.get().org() + "/" + bala.get().name();
+            servicePackages.add(qualifiedName);
+            BalaRepository.DependencyGraph dependencyGraph = bala.get().readDependencyGraph();
+            List<String> directDependencies = new ArrayList<>();
+            for (BalaRepository.PackageDependency dependency : dependencyGraph.packages()) {
+                if (!dependency.transitive()) {
+                    directDependencies.add(dependency.qualifiedName());
+                }
+                lock(dependency.org(), dependency.name(), dependency.version(), dependency.dependencies(), Set.of(),
+                        pins);
+            }
+            Set<BalaRepository.ModuleId> modules = new TreeSet<>(MODULE_ORDER);
+            for (BalaRepository.ModuleId module : dependencyGraph.modules()) {
+                if (module.packageQualifiedName().equals(qualifiedName)) {
+                    modules.add(module);
+                }
+            }
+            lock(bala.get().org(), bala.get().name(), bala.get().version(), directDependencies, modules, pins);
+        }
+        return notFound;
+    }
+
+    /**
+     * Locks the given version of a package if it is higher than the version already locked, or if it is the version
+     * the package is pinned to. The dependencies and modules recorded for the same version by different services are
+     * merged. A package that is not pinned is dropped from the lock once it is seen with an incompatible version.
+     */
+    private void lock(String org, String name, String version, Collection<String> dependencies,
+                      Set<BalaRepository.ModuleId> modules, Map<String, String> pins) {
+        String qualifiedName = org + "/" + name;
+        String pin = pins.get(qualifiedName);
+        if ((pin != null && !pin.equals(version)) || conflicts.contains(qualifiedName)) {
+            return;
+        }
+        LockedPackage locked = packages.get(qualifiedName);
+        if (locked != null && pin == null && !BalaRepository.isCompatible(version, locked.version())) {
+            packages.remove(qualifiedName);
+            conflicts.add(qualifiedName);
+            return;
+        }
+        int order = locked == null ? 1 : BalaRepository.compare(SemanticVersion.from(version),
+                SemanticVersion.from(locked.version()));
+        if (locked == null || order > 0 || (pin != null && order != 0)) {
+            Set<BalaRepository.ModuleId> lockedModules = new TreeSet<>(MODULE_ORDER);
+            lockedModules.addAll(modules);
+            packages.put(qualifiedName, new LockedPackage(org, name, version, Optional.empty(),
+                    new TreeSet<>(dependencies), lockedModules));
+        } else if (order == 0) {
+            locked.dependencies().addAll(dependencies);
+            locked.modules().addAll(modules);
+        }
+    }
+
+    /**
+     * Drops all the locked packages, keeping the Ballerina version of the lock, so that the lock can be merged again
+     * from the services that remain in the consolidator package.
+     */
+    void clear() {
+        packages.clear();
+        servicePackages.clear();
+        conflicts.clear();
+    }
+
+    int size() {
+        return packages.size();
+    }
+
+    Optional<String> getVersion(String qualifiedName) {
+        return Optional.ofNullable(packages.get(qualifiedName)).map(LockedPackage::version);
+    }
+
+    /**
+     * Returns the packages, as org/name, that are not locked as the services depend on incompatible versions of them.
+     */
+    Set<String> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Writes the lock to the Dependencies.toml of the given package, in the format written by the Ballerina build. The
+     * modules are written only for the services, as these are the only packages that the consolidator package imports.
+     */
+    void write(Path packageRoot) throws IOException {
+        StringBuilder content = new StringBuilder(HEADER)
+                .append("[ballerina]\n")
+                .append("dependencies-toml-version = \"").append(dependenciesTomlVersion).append("\"\n");
+        if (distributionVersion != null) {
+            content.append("distribution-version = \"").append(distributionVersion).append("\"\n");
+        }
+        for (LockedPackage lockedPackage : packages.values()) {
+            content.append("\n[[package]]\n")
+                    .append("org = \"").append(lockedPackage.org()).append("\"\n")
+                    .append("name = \"").append(lockedPackage.name()).append("\"\n")
+                    .append("version = \"").append(lockedPackage.version()).append("\"\n");
+            lockedPackage.scope().ifPresent(scope -> content.append("scope = \"").append(scope).append("\"\n"));
+            if (!lockedPackage.dependencies().isEmpty()) {
+                StringJoiner dependencies = new StringJoiner(",\n", "dependencies = [\n", "\n]\n");
+                for (String dependency : lockedPackage.dependencies()) {
+                    String[] orgAndName = dependency.split("/", 2);
+                    dependencies.add("\t{org = \"" + orgAndName[0] + "\", name = \"" + orgAndName[1] + "\"}");
+                }
+                content.append(dependencies);
+            }
+            if (servicePackages.contains(lockedPackage.org() + "/" + lockedPackage.name())
+                    && !lockedPackage.modules().isEmpty()) {
+                StringJoiner modules = new StringJoiner(",\n", "modules = [\n", "\n]\n");
+                for (BalaRepository.ModuleId module : lockedPackage.modules()) {
+                    modules.add("\t{org = \"" + module.org() + "\", packageName = \"" + module.packageName()
+                            + "\", moduleName = \"" + module.moduleName() + "\"}");
+                }
+                content.append(modules);
+            }
+        }
+        content.append('\n');
+        Util.writeAtomically(packageRoot.resolve(DEPENDENCIES_TOML), content.toString());
+    }
+
+    /**
+     * A package locked to a version.
+     *
+     * @param org          organization of the package
+     * @param name         name of the package
+     * @param version      locked version of the package
+     * @param scope        scope of the package, if it is not a dependency of the executable
+     * @param dependencies the packages the package directly depends on, as org/name
+     * @param modules      the modules of the package that are imported
+     */
+    private record LockedPackage(String org, String name, String version, Optional<String> scope,
+                                 Set<String> dependencies, Set<BalaRepository.ModuleId> modules) {
+    }
+}
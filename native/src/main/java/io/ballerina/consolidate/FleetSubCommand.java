@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.cli.BLauncherCmd;
+import io.ballerina.cli.cmd.CommandUtil;
+import io.ballerina.projects.TomlDocument;
+import io.ballerina.toml.api.Toml;
+import io.ballerina.toml.semantic.TomlType;
+import io.ballerina.toml.semantic.ast.TomlTableArrayNode;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+import io.ballerina.toml.semantic.ast.TopLevelNode;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.diagnostics.DiagnosticSeverity;
+import picocli.CommandLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.ballerina.consolidate.Util.FLEET;
+import static io.ballerina.consolidate.Util.HYPHEN;
+import static io.ballerina.consolidate.Util.TOOL_NAME;
+
+@CommandLine.Command(name = FLEET,
+        description = "Applies a fleet spec to many consolidator packages concurrently")
+public class FleetSubCommand implements BLauncherCmd {
+    private static final String APPLY = "apply";
+    static final String STDIN = "-";
+
+    private final PrintStream outStream;
+    private final PrintStream errStream;
+    private final InputStream inStream;
+    boolean exit;
+
+    @CommandLine.Parameters (arity = "0..2")
+    private List<String> argList;
+
+    @CommandLine.Option(names = {"--help"})
+    private boolean help;
+
+    public FleetSubCommand() {
+        this.outStream = System.out;
+        this.errStream = System.err;
+        this.inStream = System.in;
+        this.exit = true;
+        CommandUtil.initJarFs();
+    }
+
+    public FleetSubCommand(PrintStream printStream) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.inStream = System.in;
+        this.help = true;
+    }
+
+    public FleetSubCommand(PrintStream printStream, String action, String specPath, boolean exit) {
+        this(printStream, action, specPath, System.in, exit);
+    }
+
+    public FleetSubCommand(PrintStream printStream, String action, String specPath, InputStream inStream,
+                           boolean exit) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.inStream = inStream;
+        this.argList = List.of(action, specPath);
+        this.exit = exit;
+        CommandUtil.initJarFs();
+    }
+
+    @Override
+    public void execute() {
+        if (help || argList == null || argList.isEmpty()) {
+            outStream.println(Util.getHelpText(getName()));
+            return;
+        }
+        if (!APPLY.equals(argList.getFirst()) || argList.size() != 2) {
+            CommandUtil.printError(this.errStream, "invalid arguments, expected 'apply <spec>'",
+                    Util.getUsage(FLEET), false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+
+        List<FleetEntry> entries;
+        try {
+            // A spec read from the standard input lets a pipeline apply any number of changes in one invocation,
+            // with the package paths relative to the current directory.
+            Optional<List<FleetEntry>> optionalEntries = STDIN.equals(argList.get(1))
+                    ? readSpec("<stdin>", new String(inStream.readAllBytes(), StandardCharsets.UTF_8),
+                            Paths.get(System.getProperty("user.dir")))
+                    : readSpec(Paths.get(argList.get(1)).toAbsolutePath());
+            if (optionalEntries.isEmpty()) {
+                CommandUtil.exitError(this.exit);
+                return;
+            }
+            entries = optionalEntries.get();
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to read the fleet spec, reason: " + e.getMessage(),
+                    null, false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+
+        if (!applySpec(entries)) {
+            CommandUtil.exitError(this.exit);
+        }
+    }
+
+    private Optional<List<FleetEntry>> readSpec(Path specPath) throws IOException {
+        return readSpec(specPath.getFileName().toString(), Files.readString(specPath), specPath.getParent());
+    }
+
+    /**
+     * Reads the fleet spec. Each {@code [[package]]} entry has the path of a consolidator package relative to the
+     * given base directory, and the {@code services} it should host and/or the services to {@code add} and
+     * {@code remove}.
+     *
+     * @return the entries of the spec, or empty if the spec is invalid
+     */
+    private Optional<List<FleetEntry>> readSpec(String specName, String content, Path baseDir) {
+        Toml spec = TomlDocument.from(specName, content).toml();
+        boolean isValid = true;
+        for (Diagnostic diagnostic : spec.diagnostics()) {
+            if (diagnostic.diagnosticInfo().severity() == DiagnosticSeverity.ERROR) {
+                CommandUtil.printError(this.errStream, diagnostic.message(), null, false);
+                isValid = false;
+            }
+        }
+        if (!isValid) {
+            return Optional.empty();
+        }
+        TopLevelNode packagesNode = spec.rootNode().entries().get("package");
+        if (packagesNode == null || packagesNode.kind() != TomlType.TABLE_ARRAY) {
+            CommandUtil.printError(this.errStream, "no [[package]] entries found in the fleet spec", null, false);
+            return Optional.empty();
+        }
+
+        List<FleetEntry> entries = new ArrayList<>();
+        Set<Path> packagePaths = new HashSet<>();
+        for (TomlTableNode packageNode : ((TomlTableArrayNode) packagesNode).children()) {
+            Optional<String> path = Util.getString(packageNode, "path");
+            if (path.isEmpty()) {
+                CommandUtil.printError(this.errStream, "'path' is required for each [[package]] entry", null, false);
+                isValid = false;
+                continue;
+            }
+            Path packagePath = baseDir.resolve(path.get()).normalize();
+            if (!packagePaths.add(packagePath)) {
+                CommandUtil.printError(this.errStream, "'" + path.get() + "': duplicate package path", null, false);
+                isValid = false;
+                continue;
+            }
+            boolean hasServices = packageNode.entries().containsKey("services");
+            FleetEntry entry = new FleetEntry(path.get(), packagePath,
+                    hasServices ? Optional.of(new LinkedHashSet<>(Util.getStringArray(packageNode, "services")))
+                            : Optional.empty(),
+                    new LinkedHashSet<>(Util.getStringArray(packageNode, "add")),
+                    new LinkedHashSet<>(Util.getStringArray(packageNode, "remove")));
+            isValid &= entry.services().map(services -> validate(entry, services)).orElse(true);
+            isValid &= validate(entry, entry.add());
+            isValid &= validate(entry, entry.remove());
+            entries.add(entry);
+        }
+        return isValid ? Optional.of(entries) : Optional.empty();
+    }
+
+    private boolean validate(FleetEntry entry, Set<String> services) {
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        try {
+            if (Util.validateServices(services, new PrintStream(errors, true, StandardCharsets.UTF_8))) {
+                return true;
+            }
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to validate the services. ", null, false);
+            return false;
+        }
+        CommandUtil.printError(this.errStream, "invalid services for the package '" + entry.name() + "'",
+                null, false);
+        this.errStream.print(errors.toString(StandardCharsets.UTF_8));
+        return false;
+    }
+
+    /**
+     * Applies the spec entries concurrently, one virtual thread per package, and prints a per-package summary.
+     *
+     * @return true if all the packages were updated successfully
+     */
+    private boolean applySpec(List<FleetEntry> entries) {
+        outStream.println("Applying the fleet spec to " + entries.size() + " consolidator packages");
+        long startTime = System.nanoTime();
+        List<Future<FleetResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (FleetEntry entry : entries) {
+                futures.add(executor.submit(() -> apply(entry)));
+            }
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        int nameWidth = entries.stream().mapToInt(entry -> entry.name().length()).max().orElse(0);
+        boolean isSuccess = true;
+        outStream.println();
+        for (int i = 0; i < futures.size(); i++) {
+            FleetResult result;
+            try {
+                result = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result = new FleetResult(false, "interrupted", 0);
+            } catch (ExecutionException e) {
+                result = new FleetResult(false, String.valueOf(e.getCause().getMessage()), 0);
+            }
+            isSuccess &= result.isSuccess();
+            outStream.printf("\t%-" + nameWidth + "s  %6d ms  %s%n", entries.get(i).name(), result.millis(),
+                    result.isSuccess() ? result.summary() : "failed: " + result.summary());
+        }
+        outStream.println();
+        if (isSuccess) {
+            outStream.println("Successfully applied the fleet spec in " + totalMillis + " ms.\n");
+            outStream.println("What's next?\n\t Execute 'bal build' on the updated packages to generate the " +
+                    "executables.");
+        } else {
+            CommandUtil.printError(this.errStream, "Failed to apply the fleet spec to some packages", null, false);
+        }
+        return isSuccess;
+    }
+
+    private static FleetResult apply(FleetEntry entry) {
+        long startTime = System.nanoTime();
+        try {
+            String summary;
+            if (!Files.exists(entry.packagePath().resolve(Util.BALLERINA_TOML))) {
+                if (entry.services().isEmpty() && entry.add().isEmpty()) {
+                    return new FleetResult(false, "package does not exist", elapsedMillis(startTime));
+                }
+                Set<String> services = new LinkedHashSet<>(entry.services().orElse(Set.of()));
+                Util.addServices(services, entry.add());
+                Util.removeServices(services, entry.remove());
+                ByteArrayOutputStream packageLog = new ByteArrayOutputStream();
+                NewSubCommand.initConsolidatorPackage(entry.packagePath(), services,
+                        new PrintStream(packageLog, true, StandardCharsets.UTF_8));
+                summary = "created with " + services.size() + " services";
+            } else {
+                int[] counts = new int[2];
+                boolean hasToolEntry = Util.updateServices(entry.packagePath(), services -> {
+                    int before = services.size();
+                    entry.services().ifPresent(desired -> {
+                        services.retainAll(desired);
+                        Util.addServices(services, desired);
+                    });
+                    Util.addServices(services, entry.add());
+                    Util.removeServices(services, entry.remove());
+                    counts[0] = before;
+                    counts[1] = services.size();
+                });
+                if (!hasToolEntry) {
+                    return new FleetResult(false, "'" + TOOL_NAME + "' tool entry not found in the " +
+                            Util.BALLERINA_TOML, elapsedMillis(startTime));
+                }
+                summary = "updated " + counts[0] + " -> " + counts[1] + " services";
+            }
+            return new FleetResult(true, summary, elapsedMillis(startTime));
+        } catch (Exception e) {
+            return new FleetResult(false, String.valueOf(e.getMessage()), elapsedMillis(startTime));
+        }
+    }
+
+    private static long elapsedMillis(long startTime) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public String getName() {
+        return TOOL_NAME + HYPHEN + FLEET;
+    }
+
+    @Override
+    public void printLongDesc(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void printUsage(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void setParentCmdParser(CommandLine commandLine) {
+
+    }
+
+    private record FleetEntry(String name, Path packagePath, Optional<Set<String>> services, Set<String> add,
+                              Set<String> remove) {
+    }
+
+    private record FleetResult(boolean isSuccess, String summary, long millis) {
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.cli.BLauncherCmd;
+import io.ballerina.cli.cmd.CommandUtil;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipFile;
+
+import static io.ballerina.consolidate.Util.FOOTPRINT;
+import static io.ballerina.consolidate.Util.HYPHEN;
+
+@CommandLine.Command(name = FOOTPRINT,
+        description = "Estimates the footprint that each service adds to the consolidated executable")
+public class FootprintSubCommand implements BLauncherCmd {
+    private final PrintStream outStream;
+    private final PrintStream errStream;
+    private final BalaRepository repository;
+    boolean exit;
+
+    @CommandLine.Parameters (arity = "0..1")
+    private String servicesStr;
+
+    @CommandLine.Option(names = {"--help"})
+    private boolean help;
+
+    public FootprintSubCommand() {
+        this.outStream = System.out;
+        this.errStream = System.err;
+        this.repository = BalaRepository.fromUserHome();
+        this.exit = true;
+    }
+
+    public FootprintSubCommand(PrintStream printStream) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.repository = BalaRepository.fromUserHome();
+        this.help = true;
+    }
+
+    public FootprintSubCommand(PrintStream printStream, String servicesStr, Path ballerinaHome, boolean exit) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.servicesStr = servicesStr;
+        this.repository = new BalaRepository(ballerinaHome);
+        this.exit = exit;
+        CommandUtil.initJarFs();
+    }
+
+    @Override
+    public void execute() {
+        if (help) {
+            outStream.println(Util.getHelpText(getName()));
+            return;
+        }
+
+        Optional<Set<String>> services;
+        try {
+            services = servicesStr != null ? Util.getServices(servicesStr, FOOTPRINT, errStream)
+                    : Util.getServicesOfCurrentPackage(errStream);
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to extract the services. ", null, false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+        if (services.isEmpty()) {
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+
+        try {
+            estimate(services.get());
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to estimate the footprint, reason: " + e.getMessage(),
+                    null, false);
+            CommandUtil.exitError(this.exit);
+        }
+    }
+
+    /**
+     * Prints the footprint of each service, sorted by the footprint of the packages that only the service depends
+     * on, which is what adding the service to the others costs, or removing it saves.
+     */
+    private void estimate(Set<String> services) throws IOException {
+        outStream.println("Estimating the footprint of " + services.size() + " services");
+
+        // service -> the packages in its executable, including itself, as org/name:version
+        Map<String, Set<String>> servicePackages = new HashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (String service : services) {
+            Optional<BalaRepository.Bala> bala = repository.findService(service);
+            if (bala.isEmpty()) {
+                notFound.add(service);
+                continue;
+            }
+            Set<String> packages = new LinkedHashSet<>();
+            packages.add(Util.getPackageName(service) + ":" + bala.get().version());
+            for (BalaRepository.PackageDependency dependency : bala.get().readDependencyGraph().packages()) {
+                packages.add(dependency.qualifiedName() + ":" + dependency.version());
+            }
+            servicePackages.put(service, packages);
+        }
+
+        Map<String, Integer> dependents = new HashMap<>();
+        Map<String, Footprint> footprints = new HashMap<>();
+        for (Set<String> packages : servicePackages.values()) {
+            for (String pkg : packages) {
+                dependents.merge(pkg, 1, Integer::sum);
+                if (!footprints.containsKey(pkg)) {
+                    footprints.put(pkg, getFootprint(pkg));
+                }
+            }
+        }
+
+        List<ServiceFootprint> rows = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> service : servicePackages.entrySet()) {
+            Footprint total = Footprint.NONE;
+            Footprint unique = Footprint.NONE;
+            int uniqueDependencies = 0;
+            for (String pkg : service.getValue()) {
+                total = total.plus(footprints.get(pkg));
+                if (dependents.get(pkg) == 1) {
+                    unique = unique.plus(footprints.get(pkg));
+                    if (!pkg.startsWith(Util.getPackageName(service.getKey()) + ":")) {
+                        uniqueDependencies++;
+                    }
+                }
+            }
+            rows.add(new ServiceFootprint(service.getKey(), total, unique, uniqueDependencies));
+        }
+        rows.sort(Comparator.comparingLong((ServiceFootprint row) -> row.unique().size()).reversed()
+                .thenComparing(ServiceFootprint::service));
+
+        int nameWidth = Math.max("Service".length(),
+                rows.stream().mapToInt(row -> row.service().length()).max().orElse(0));
+        String format = "\t%-" + nameWidth + "s  %10s  %8s  %12s  %11s  %14s%n";
+        outStream.println();
+        outStream.printf(format, "Service", "Size", "Classes", "Unique deps", "Unique size", "Unique classes");
+        Footprint separateTotal = Footprint.NONE;
+        for (ServiceFootprint row : rows) {
+            outStream.printf(format, row.service(), formatSize(row.total().size()), row.total().classes(),
+                    row.uniqueDependencies(), formatSize(row.unique().size()), row.unique().classes());
+            separateTotal = separateTotal.plus(row.total());
+        }
+        Footprint consolidated = Footprint.NONE;
+        for (Footprint footprint : footprints.values()) {
+            consolidated = consolidated.plus(footprint);
+        }
+        outStream.println();
+        outStream.println("Estimated size of the consolidated executable: " + formatSize(consolidated.size()) + " ("
+                + consolidated.classes() + " classes), against " + formatSize(separateTotal.size()) + " ("
+                + separateTotal.classes() + " classes) for separate executables. The Ballerina runtime, which every "
+                + "executable includes, is not counted.");
+
+        Set<String> notCompiled = new TreeSet<>();
+        footprints.forEach((pkg, footprint) -> {
+            if (footprint.jars() == 0) {
+                notCompiled.add(pkg);
+            }
+        });
+        if (!notCompiled.isEmpty()) {
+            outStream.println("\nThe jars of the following packages were not found, and they are not counted. Build "
+                    + "a package that depends on them to compile them:");
+            for (String pkg : notCompiled) {
+                outStream.println("\t" + pkg);
+            }
+        }
+        if (!notFound.isEmpty()) {
+            outStream.println("\nServices not found in the local repositories. Execute 'bal pull' on them to " +
+                    "include them in the estimate:");
+            for (String service : notFound) {
+                outStream.println("\t" + service);
+            }
+        }
+    }
+
+    private Footprint getFootprint(String pkg) throws IOException {
+        String[] parts = pkg.split("[/:]", 3);
+        Footprint footprint = Footprint.NONE;
+        for (Path jar : repository.findJars(parts[0], parts[1], parts[2])) {
+            long classes;
+            try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+                classes = zipFile.stream().filter(entry -> entry.getName().endsWith(".class")).count();
+            }
+            footprint = footprint.plus(new Footprint(Files.size(jar), classes, 1));
+        }
+        return footprint;
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    @Override
+    public String getName() {
+        return Util.TOOL_NAME + HYPHEN + FOOTPRINT;
+    }
+
+    @Override
+    public void printLongDesc(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void printUsage(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void setParentCmdParser(CommandLine commandLine) {
+
+    }
+
+    private record Footprint(long size, long classes, int jars) {
+        static final Footprint NONE = new Footprint(0, 0, 0);
+
+        Footprint plus(Footprint other) {
+            return new Footprint(size + other.size, classes + other.classes, jars + other.jars);
+        }
+    }
+
+    private record ServiceFootprint(String service, Footprint total, Footprint unique, int uniqueDependencies) {
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.CheckExpressionNode;
+import io.ballerina.compiler.syntax.tree.ExplicitNewExpressionNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FunctionArgumentNode;
+import io.ballerina.compiler.syntax.tree.FunctionCallExpressionNode;
+import io.ballerina.compiler.syntax.tree.ImplicitNewExpressionNode;
+import io.ballerina.compiler.syntax.tree.ListenerDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.NameReferenceNode;
+import io.ballerina.compiler.syntax.tree.NamedArgumentNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.ParenthesizedArgList;
+import io.ballerina.compiler.syntax.tree.PositionalArgumentNode;
+import io.ballerina.compiler.syntax.tree.QualifiedNameReferenceNode;
+import io.ballerina.compiler.syntax.tree.ServiceDeclarationNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.tools.text.TextDocuments;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Finds the listeners declared in the sources of a package, and the base paths of the services attached to them, by
+ * parsing the sources without compiling the package.
+ */
+class ListenerScanner {
+    private static final String PORT = "port";
+    private static final String GET_DEFAULT_LISTENER = "getDefaultListener";
+
+    private ListenerScanner() {
+    }
+
+    /**
+     * Scans the sources of the modules in the given bala, excluding their tests.
+     */
+    static List<Listener> scanBala(Path balaPath) throws IOException {
+        Path modulesPath = balaPath.resolve("modules");
+        if (!Files.isDirectory(modulesPath)) {
+            return List.of();
+        }
+        List<Path> sourcePaths;
+        try (Stream<Path> paths = Files.walk(modulesPath)) {
+            sourcePaths = paths.filter(path -> path.getFileName().toString().endsWith(".bal")
+                            && !isTestSource(modulesPath.relativize(path)))
+                    .sorted().toList();
+        }
+        List<String> sources = new ArrayList<>();
+        for (Path sourcePath : sourcePaths) {
+            sources.add(Files.readString(sourcePath));
+        }
+        return scan(sources);
+    }
+
+    private static boolean isTestSource(Path relativePath) {
+        for (Path element : relativePath) {
+            if ("tests".equals(element.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the module level listener declarations in the given sources, followed by the listeners that services
+     * are attached to with an expression, along with the base paths of the services attached to each listener.
+     * Listeners are matched to services by name, so the sources are parsed before any service is resolved.
+     */
+    static List<Listener> scan(List<String> sources) {
+        List<ModulePartNode> modulePartNodes = new ArrayList<>();
+        for (String source : sources) {
+            modulePartNodes.add(SyntaxTree.from(TextDocuments.from(source)).rootNode());
+        }
+        List<Listener> listeners = new ArrayList<>();
+        Map<String, Listener> declaredListeners = new HashMap<>();
+        for (ModulePartNode modulePartNode : modulePartNodes) {
+            for (ModuleMemberDeclarationNode member : modulePartNode.members()) {
+                if (member.kind() != SyntaxKind.LISTENER_DECLARATION) {
+                    continue;
+                }
+                ListenerDeclarationNode listenerNode = (ListenerDeclarationNode) member;
+                Node initializer = unwrapCheck(listenerNode.initializer());
+                Optional<String> type = listenerNode.typeDescriptor().map(ListenerScanner::toSource);
+                if (type.isEmpty() && initializer.kind() == SyntaxKind.EXPLICIT_NEW_EXPRESSION) {
+                    type = Optional.of(toSource(((ExplicitNewExpressionNode) initializer).typeDescriptor()));
+                }
+                Listener listener = new Listener(listenerNode.variableName().text(), type.orElse(""),
+                        getPort(initializer), isDefaultListener(initializer), new ArrayList<>());
+                listeners.add(listener);
+                declaredListeners.put(listener.name(), listener);
+            }
+        }
+        for (ModulePartNode modulePartNode : modulePartNodes) {
+            for (ModuleMemberDeclarationNode member : modulePartNode.members()) {
+                if (member.kind() != SyntaxKind.SERVICE_DECLARATION) {
+                    continue;
+                }
+                ServiceDeclarationNode serviceNode = (ServiceDeclarationNode) member;
+                String basePath = getBasePath(serviceNode);
+                for (ExpressionNode expression : serviceNode.expressions()) {
+                    Node attachedTo = unwrapCheck(expression);
+                    if (attachedTo.kind() == SyntaxKind.SIMPLE_NAME_REFERENCE) {
+                        Listener listener = declaredListeners.get(toSource(attachedTo));
+                        if (listener != null) {
+                            listener.basePaths().add(basePath);
+                        }
+                    } else if (attachedTo.kind() == SyntaxKind.EXPLICIT_NEW_EXPRESSION) {
+                        listeners.add(new Listener("", toSource(((ExplicitNewExpressionNode) attachedTo)
+                                .typeDescriptor()), getPort(attachedTo), false, new ArrayList<>(List.of(basePath))));
+                    } else if (isDefaultListener(attachedTo)) {
+                        listeners.add(new Listener("", "", Optional.empty(), true,
+                                new ArrayList<>(List.of(basePath))));
+                    }
+                }
+            }
+        }
+        return listeners;
+    }
+
+    private static Node unwrapCheck(Node expression) {
+        if (expression.kind() == SyntaxKind.CHECK_EXPRESSION) {
+            return ((CheckExpressionNode) expression).expression();
+        }
+        return expression;
+    }
+
+    /**
+     * Returns true if the listener is the default listener of the http module, which is shared by all the services
+     * attached to it in a process.
+     */
+    private static boolean isDefaultListener(Node initializer) {
+        if (initializer.kind() != SyntaxKind.FUNCTION_CALL) {
+            return false;
+        }
+        NameReferenceNode functionName = ((FunctionCallExpressionNode) initializer).functionName();
+        return functionName.kind() == SyntaxKind.QUALIFIED_NAME_REFERENCE
+                && GET_DEFAULT_LISTENER.equals(((QualifiedNameReferenceNode) functionName).identifier().text());
+    }
+
+    /**
+     * Returns the base path of a service, which is either a resource path or a string literal, and '/' if it is not
+     * given.
+     */
+    private static String getBasePath(ServiceDeclarationNode serviceNode) {
+        StringBuilder basePath = new StringBuilder();
+        for (Node node : serviceNode.absoluteResourcePath()) {
+            String segment = toSource(node);
+            if (node.kind() == SyntaxKind.STRING_LITERAL) {
+                segment = segment.substring(1, segment.length() - 1);
+            } else if (node.kind() == SyntaxKind.IDENTIFIER_TOKEN) {
+                segment = segment.replace("\\", "").replace("'", "");
+            }
+            basePath.append(segment);
+        }
+        if (basePath.isEmpty() || basePath.charAt(0) != '/') {
+            basePath.insert(0, '/');
+        }
+        return basePath.toString();
+    }
+
+    /**
+     * Returns the port of a listener created with a new expression, if it is given as a literal, either as the first
+     * argument or as the named argument 'port'.
+     */
+    private static Optional<Integer> getPort(Node initializer) {
+        Optional<ParenthesizedArgList> argList = Optional.empty();
+        if (initializer.kind() == SyntaxKind.EXPLICIT_NEW_EXPRESSION) {
+            argList = Optional.of(((ExplicitNewExpressionNode) initializer).parenthesizedArgList());
+        } else if (initializer.kind() == SyntaxKind.IMPLICIT_NEW_EXPRESSION) {
+            argList = ((ImplicitNewExpressionNode) initializer).parenthesizedArgList();
+        }
+        if (argList.isEmpty()) {
+            return Optional.empty();
+        }
+        for (FunctionArgumentNode argument : argList.get().arguments()) {
+            ExpressionNode port;
+            if (argument.kind() == SyntaxKind.POSITIONAL_ARG) {
+                port = ((PositionalArgumentNode) argument).expression();
+            } else if (argument.kind() == SyntaxKind.NAMED_ARG
+                    && PORT.equals(((NamedArgumentNode) argument).argumentName().name().text())) {
+                port = ((NamedArgumentNode) argument).expression();
+            } else {
+                continue;
+            }
+            if (port.kind() != SyntaxKind.NUMERIC_LITERAL) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Integer.parseInt(((BasicLiteralNode) port).literalToken().text()));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String toSource(Node node) {
+        return node.toSourceCode().trim();
+    }
+
+    /**
+     * A listener declared in a package.
+     *
+     * @param name      name of the listener, or empty if it is created where a service is attached to it
+     * @param type      type of the listener, or empty if it is not known
+     * @param port      port of the listener, or empty if it is not given as a literal
+     * @param isDefault true if the listener is the default listener of the http module
+     * @param basePaths base paths of the services attached to the listener
+     */
+    record Listener(String name, String type, Optional<Integer> port, boolean isDefault, List<String> basePaths) {
+    }
+}
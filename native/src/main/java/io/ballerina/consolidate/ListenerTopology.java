@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The listeners that the consolidated services bind in a single process, and the base paths attached to each of
+ * them.
+ * <p>
+ * Every listener declared in a service, or created where a service is attached to it, binds its own port, except the
+ * default listener of the http module, which is a single listener shared by all the services attached to it. Two
+ * listeners on the same port, or two services with the same base path on the same listener, make the consolidated
+ * executable fail at startup.
+ */
+class ListenerTopology {
+    static final String DEFAULT_LISTENER = "the default http listener";
+
+    private final List<Binding> bindings;
+
+    private ListenerTopology(List<Binding> bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * Builds the topology of the given services.
+     *
+     * @param services            service -> the listeners declared in the service
+     * @param defaultListenerPort port of the default listener of the http module
+     */
+    static ListenerTopology of(Map<String, List<ListenerScanner.Listener>> services, int defaultListenerPort) {
+        List<Binding> bindings = new ArrayList<>();
+        Binding defaultListener = new Binding(DEFAULT_LISTENER, Optional.of(defaultListenerPort), new TreeMap<>());
+        for (Map.Entry<String, List<ListenerScanner.Listener>> service : new TreeMap<>(services).entrySet()) {
+            for (ListenerScanner.Listener listener : service.getValue()) {
+                Binding binding;
+                if (listener.isDefault()) {
+                    binding = defaultListener;
+                } else {
+                    String name = service.getKey() + (listener.name().isEmpty() ? "" : ":" + listener.name());
+                    binding = new Binding(listener.type().isEmpty() ? name : name + " (" + listener.type() + ")",
+                            listener.port(), new TreeMap<>());
+                    bindings.add(binding);
+                }
+                for (String basePath : listener.basePaths()) {
+                    binding.basePaths().computeIfAbsent(basePath, key -> new ArrayList<>()).add(service.getKey());
+                }
+            }
+        }
+        if (!defaultListener.basePaths().isEmpty()) {
+            bindings.add(defaultListener);
+        }
+        // Listeners with a known port first, in the order of the ports
+        bindings.sort(Comparator.comparing((Binding binding) -> binding.port().orElse(Integer.MAX_VALUE))
+                .thenComparing(Binding::listener));
+        return new ListenerTopology(bindings);
+    }
+
+    List<Binding> bindings() {
+        return bindings;
+    }
+
+    /**
+     * Returns the port/base-path map, with a line for each listener followed by a line for each base path attached to
+     * it.
+     */
+    String format() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Binding binding : bindings) {
+            stringBuilder.append('\t').append(binding.port().map(String::valueOf).orElse("unknown port"))
+                    .append(": ").append(binding.listener()).append('\n');
+            binding.basePaths().forEach((basePath, services) -> stringBuilder.append("\t\t").append(basePath)
+                    .append(" (").append(String.join(", ", new TreeSet<>(services))).append(")\n"));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns a message for each port that is bound by more than one listener.
+     */
+    List<String> portConflicts() {
+        Map<Integer, List<String>> listeners = new TreeMap<>();
+        for (Binding binding : bindings) {
+            binding.port().ifPresent(port ->
+                    listeners.computeIfAbsent(port, key -> new ArrayList<>()).add(binding.listener()));
+        }
+        List<String> conflicts = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> port : listeners.entrySet()) {
+            if (port.getValue().size() > 1) {
+                conflicts.add("Port " + port.getKey() + " is bound by more than one listener: "
+                        + String.join(", ", port.getValue()));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Returns a message for each base path that is attached to the same listener by more than one service.
+     */
+    List<String> basePathConflicts() {
+        List<String> conflicts = new ArrayList<>();
+        for (Binding binding : bindings) {
+            for (Map.Entry<String, List<String>> basePath : binding.basePaths().entrySet()) {
+                if (basePath.getValue().size() > 1) {
+                    conflicts.add("Base path '" + basePath.getKey() + "' is attached more than once to "
+                            + binding.listener() + binding.port().map(port -> " on port " + port).orElse("")
+                            + ", by " + String.join(", ", new TreeSet<>(basePath.getValue())));
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * A listener in the consolidated process.
+     *
+     * @param listener  the service and name of the listener, or the default listener
+     * @param port      port of the listener, or empty if it is not given as a literal
+     * @param basePaths base path -> the services that attach a service with the base path to the listener
+     */
+    record Binding(String listener, Optional<Integer> port, Map<String, List<String>> basePaths) {
+    }
+}
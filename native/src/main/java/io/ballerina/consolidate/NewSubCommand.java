@@ -28,6 +28,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -107,6 +109,31 @@ public class NewSubCommand implements BLauncherCmd {
         for (String service : services) {
             outStream.println("\t" + service);
         }
+        initConsolidatorPackage(packagePath, services, outStream);
+        outStream.println("\nSuccessfully created the consolidator package at '" + this.packagePath + "'.\n");
+        outStream.println("What's next?\n\t Execute 'bal build " + this.packagePath + "' to generate the executable.");
+        BalaRepository repository = BalaRepository.fromUserHome();
+        Util.printUnknownServices(services, repository, outStream);
+        Util.lockDependencies(packagePath, services, repository, outStream);
+    }
+
+    /**
+     * Initializes a Ballerina package at the given path with a consolidate-packages tool entry for the services, and
+     * a [[dependency]] entry for each service pinned to a version.
+     */
+    static void initConsolidatorPackage(Path packagePath, Collection<String> services, PrintStream outStream)
+            throws IOException, URISyntaxException {
+        initConsolidatorPackage(packagePath, services, "", outStream);
+    }
+
+    /**
+     * Initializes a Ballerina package at the given path with a consolidate-packages tool entry for the services and
+     * the given other tool options, and a [[dependency]] entry for each service pinned to a version.
+     *
+     * @param toolOptions the tool options other than the services, as dotted keys each on a line of its own
+     */
+    static void initConsolidatorPackage(Path packagePath, Collection<String> services, String toolOptions,
+                                        PrintStream outStream) throws IOException, URISyntaxException {
         Files.createDirectories(packagePath);
         String packageName = Util.validatePackageName(packagePath.getFileName().toString(), outStream);
         CommandUtil.initPackageByTemplate(packagePath, packageName, "default", true);
@@ -117,11 +144,15 @@ public class NewSubCommand implements BLauncherCmd {
         }
         String toolEntry = "\n[[tool." + TOOL_NAME + "]]\n" + "id = " + "\"consolidatePackages1\"\n" +
                 "options.services = [" +
-                options + "]";
-
-        Files.writeString(packagePath.resolve(Util.BALLERINA_TOML), toolEntry, StandardOpenOption.APPEND);
-        outStream.println("\nSuccessfully created the consolidator package at '" + this.packagePath + "'.\n");
-        outStream.println("What's next?\n\t Execute 'bal build " + this.packagePath + "' to generate the executable.");
+                options + "]" + (toolOptions.isEmpty() ? "" : "\n" + toolOptions.stripTrailing());
+
+        Path balTomlPath = packagePath.resolve(Util.BALLERINA_TOML);
+        Files.writeString(balTomlPath, toolEntry, StandardOpenOption.APPEND);
+        String content = Files.readString(balTomlPath);
+        String pinned = Util.replaceDependencyPins(content, List.of(), services);
+        if (!pinned.equals(content)) {
+            Files.writeString(balTomlPath, pinned);
+        }
     }
 
     @Override
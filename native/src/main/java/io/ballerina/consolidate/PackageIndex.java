@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * An index of the packages in the repositories of the Ballerina user home, with the versions of each package, which
+ * the service patterns are expanded against.
+ * <p>
+ * The index is stored in the Ballerina user home and is refreshed incrementally when loaded. A package is only
+ * re-indexed when the modification time of its directory in one of the repositories has changed, which happens when
+ * a version of it is pulled, pushed or deleted.
+ */
+class PackageIndex {
+    static final String INDEX_FILE = "consolidate-packages-index.json";
+    private static final int INDEX_VERSION = 3;
+
+    private final BalaRepository repository;
+    private final Map<String, Entry> entries;
+
+    private PackageIndex(BalaRepository repository, Map<String, Entry> entries) {
+        this.repository = repository;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the index of the packages in the repositories of the Ballerina user home.
+     */
+    static PackageIndex load() throws IOException {
+        return load(BalaRepository.getBallerinaHome());
+    }
+
+    /**
+     * Loads the index stored in the given Ballerina home, and brings it up to date with the repositories.
+     */
+    static PackageIndex load(Path ballerinaHome) throws IOException {
+        Path indexPath = ballerinaHome.resolve(INDEX_FILE);
+        PackageIndex index = new PackageIndex(new BalaRepository(ballerinaHome), read(indexPath));
+        if (index.refresh() && Files.isDirectory(ballerinaHome)) {
+            Util.writeAtomically(indexPath, index.toJson().toString());
+        }
+        return index;
+    }
+
+    Optional<Entry> get(String qualifiedName) {
+        return Optional.ofNullable(entries.get(qualifiedName));
+    }
+
+    /**
+     * Returns the packages matching the given pattern, in which '*' matches any part of an organization or a package
+     * name.
+     */
+    Set<String> match(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : pattern.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append("[^/]*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        Pattern compiled = Pattern.compile(regex.toString());
+        Set<String> matches = new TreeSet<>();
+        for (String qualifiedName : entries.keySet()) {
+            if (compiled.matcher(qualifiedName).matches()) {
+                matches.add(qualifiedName);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Re-indexes the packages whose directories have changed, and drops the packages that no longer exist.
+     *
+     * @return true if the index was changed
+     */
+    private boolean refresh() throws IOException {
+        Map<String, Long> modifiedTimes = new TreeMap<>();
+        for (String repositoryName : BalaRepository.REPOSITORIES) {
+            Path balaPath = repository.getBalaPath(repositoryName);
+            if (!Files.isDirectory(balaPath)) {
+                continue;
+            }
+            for (Path orgPath : list(balaPath)) {
+                for (Path packagePath : list(orgPath)) {
+                    modifiedTimes.merge(orgPath.getFileName() + "/" + packagePath.getFileName(),
+                            Files.getLastModifiedTime(packagePath).toMillis(), Math::max);
+                }
+            }
+        }
+
+        boolean isChanged = entries.keySet().retainAll(modifiedTimes.keySet());
+        for (Map.Entry<String, Long> modifiedTime : modifiedTimes.entrySet()) {
+            Entry entry = entries.get(modifiedTime.getKey());
+            if (entry != null && entry.modifiedTime() == modifiedTime.getValue()) {
+                continue;
+            }
+            String[] orgAndName = modifiedTime.getKey().split("/", 2);
+            List<String> versions = repository.findVersions(orgAndName[0], orgAndName[1]);
+            if (versions.isEmpty()) {
+                isChanged |= entries.remove(modifiedTime.getKey()) != null;
+                continue;
+            }
+            entries.put(modifiedTime.getKey(), new Entry(modifiedTime.getValue(), versions));
+            isChanged = true;
+        }
+        return isChanged;
+    }
+
+    private static List<Path> list(Path path) throws IOException {
+        try (Stream<Path> paths = Files.list(path)) {
+            return paths.filter(Files::isDirectory).toList();
+        }
+    }
+
+    private static Map<String, Entry> read(Path indexPath) throws IOException {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (!Files.isRegularFile(indexPath)) {
+            return entries;
+        }
+        JsonElement indexElement;
+        try {
+            indexElement = JsonParser.parseString(Files.readString(indexPath));
+        } catch (JsonParseException e) {
+            // An index that cannot be read is rebuilt from the repositories.
+            return entries;
+        }
+        if (!indexElement.isJsonObject()
+                || getLong(indexElement.getAsJsonObject(), "version").orElse(-1L) != INDEX_VERSION
+                || !isObject(indexElement.getAsJsonObject(), "packages")) {
+            return entries;
+        }
+        // An entry that is not valid is left out, so that the package is re-indexed.
+        for (Map.Entry<String, JsonElement> element : indexElement.getAsJsonObject().getAsJsonObject("packages")
+                .entrySet()) {
+            readEntry(element.getValue()).ifPresent(entry -> entries.put(element.getKey(), entry));
+        }
+        return entries;
+    }
+
+    private static Optional<Entry> readEntry(JsonElement element) {
+        if (!element.isJsonObject()) {
+            return Optional.empty();
+        }
+        JsonObject entry = element.getAsJsonObject();
+        Optional<Long> modifiedTime = getLong(entry, "modifiedTime");
+        Optional<List<String>> versions = getStrings(entry, "versions");
+        if (modifiedTime.isEmpty() || versions.isEmpty() || versions.get().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Entry(modifiedTime.get(), versions.get()));
+    }
+
+    private static boolean isObject(JsonObject object, String key) {
+        return object.has(key) && object.get(key).isJsonObject();
+    }
+
+    private static boolean isArray(JsonObject object, String key) {
+        return object.has(key) && object.get(key).isJsonArray();
+    }
+
+    private static Optional<Long> getLong(JsonObject object, String key) {
+        return object.has(key) && object.get(key).isJsonPrimitive()
+                && object.get(key).getAsJsonPrimitive().isNumber()
+                ? Optional.of(object.get(key).getAsLong()) : Optional.empty();
+    }
+
+    private static Optional<List<String>> getStrings(JsonObject object, String key) {
+        if (!isArray(object, key)) {
+            return Optional.empty();
+        }
+        List<String> values = new ArrayList<>();
+        for (JsonElement element : object.getAsJsonArray(key)) {
+            if (!element.isJsonPrimitive() || !element.getAsJsonPrimitive().isString()) {
+                return Optional.empty();
+            }
+            values.add(element.getAsString());
+        }
+        return Optional.of(values);
+    }
+
+    private JsonObject toJson() {
+        JsonObject packages = new JsonObject();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            JsonArray versions = new JsonArray();
+            entry.getValue().versions().forEach(versions::add);
+            JsonObject entryJson = new JsonObject();
+            entryJson.addProperty("modifiedTime", entry.getValue().modifiedTime());
+            entryJson.add("versions", versions);
+            packages.add(entry.getKey(), entryJson);
+        }
+        JsonObject index = new JsonObject();
+        index.addProperty("version", INDEX_VERSION);
+        index.add("packages", packages);
+        return index;
+    }
+
+    /**
+     * An indexed package.
+     *
+     * @param modifiedTime latest modification time of the directories of the package in the repositories
+     * @param versions     versions of the package in the repositories, in ascending order
+     */
+    record Entry(long modifiedTime, List<String> versions) {
+    }
+}
@@ -19,13 +19,11 @@ package io.ballerina.consolidate;
 
 import io.ballerina.cli.BLauncherCmd;
 import io.ballerina.cli.cmd.CommandUtil;
-import io.ballerina.projects.PackageManifest;
-import io.ballerina.projects.ProjectException;
-import io.ballerina.projects.directory.BuildProject;
 import picocli.CommandLine;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashSet;
@@ -104,30 +102,25 @@ public class RemoveSubCommand implements BLauncherCmd {
             rmServices.add(service);
         }
 
-        try {
-            BuildProject buildProject = BuildProject.load(Paths.get(System.getProperty("user.dir")));
-            if (buildProject.currentPackage().ballerinaToml().isEmpty()) {
-                CommandUtil.printError(this.errStream, "Invalid package provided",
-                        null, false);
-                CommandUtil.exitError(this.exit);
-            }
-
-            Path balTomlPath = buildProject.sourceRoot().resolve(Util.BALLERINA_TOML);
-            for (PackageManifest.Tool tool : buildProject.currentPackage().manifest().tools()) {
-                if (Util.TOOL_NAME.equals(tool.type().value())) {
-                    Set<String> allServices = Util.getServices(tool.optionsTable());
-                    allServices.removeAll(rmServices);
-                    Util.replaceServicesArrayInToml(allServices, balTomlPath);
-                   break;
-                }
-            }
-        } catch (ProjectException e) {
+        Path packageRoot = Paths.get(System.getProperty("user.dir"));
+        if (!Files.isRegularFile(packageRoot.resolve(Util.BALLERINA_TOML))) {
             CommandUtil.printError(this.errStream, "Current directory is not a valid Ballerina package",
                     null, false);
             CommandUtil.exitError(this.exit);
+            return;
+        }
+        if (!Util.updateServices(packageRoot, allServices -> Util.removeServices(allServices, rmServices))) {
+            CommandUtil.printError(this.errStream, "'" + Util.TOOL_NAME + "' tool entry not found in the "
+                    + Util.BALLERINA_TOML, null, false);
+            CommandUtil.exitError(this.exit);
+            return;
         }
         outStream.println("\nSuccessfully removed the services from the package.\n");
         outStream.println("What's next?\n\t Execute 'bal build' to generate the executable.");
+        Optional<Set<String>> remainingServices = Util.readServices(packageRoot);
+        if (remainingServices.isPresent()) {
+            Util.relockDependencies(packageRoot, remainingServices.get(), BalaRepository.fromUserHome(), outStream);
+        }
     }
     @Override
     public String getName() {
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Splits services into shards of a similar cost, each of which is consolidated into a package of its own.
+ * <p>
+ * The cost of a service has a CPU, a memory and a request rate dimension, and each dimension is measured as the share
+ * of the total of all the services. The services are placed largest first, each on the shard where it raises the
+ * largest share of the shard the least, which is the longest processing time heuristic extended to several
+ * dimensions. Services without a known cost are assumed to cost the average of the others, so that without any costs
+ * the services are spread evenly by their count.
+ */
+class ServiceSharding {
+    static final List<String> DIMENSIONS = List.of("cpu", "memory", "rps");
+    private static final double EPSILON = 1e-9;
+
+    private ServiceSharding() {
+    }
+
+    /**
+     * Reads the costs of the services from a CSV file with a header row. The header names the 'service' column and
+     * the cpu, memory and rps columns, in any order. Other columns, blank lines and lines starting with '#' are
+     * ignored.
+     *
+     * @return package name of the service -> cost
+     */
+    static Map<String, Cost> readCosts(Path csvPath) throws IOException {
+        List<String> lines = Files.readAllLines(csvPath);
+        Map<String, Cost> costs = new HashMap<>();
+        int[] columns = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] values = line.split(",", -1);
+            if (columns == null) {
+                List<String> header = new ArrayList<>();
+                for (String value : values) {
+                    header.add(unquote(value).toLowerCase(Locale.ROOT));
+                }
+                columns = new int[DIMENSIONS.size() + 1];
+                columns[0] = header.indexOf("service");
+                for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                    columns[dimension + 1] = header.indexOf(DIMENSIONS.get(dimension));
+                }
+                if (columns[0] == -1) {
+                    throw new IOException("'service' column not found in the header of '" + csvPath + "'");
+                }
+                continue;
+            }
+            double[] cost = new double[DIMENSIONS.size()];
+            for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                int column = columns[dimension + 1];
+                if (column == -1 || column >= values.length || unquote(values[column]).isEmpty()) {
+                    continue;
+                }
+                try {
+                    cost[dimension] = Double.parseDouble(unquote(values[column]));
+                } catch (NumberFormatException e) {
+                    throw new IOException("invalid " + DIMENSIONS.get(dimension) + " at line " + (i + 1) + " of '"
+                            + csvPath + "'");
+                }
+                if (cost[dimension] < 0 || !Double.isFinite(cost[dimension])) {
+                    throw new IOException("invalid " + DIMENSIONS.get(dimension) + " at line " + (i + 1) + " of '"
+                            + csvPath + "'");
+                }
+            }
+            if (columns[0] >= values.length) {
+                throw new IOException("service not found at line " + (i + 1) + " of '" + csvPath + "'");
+            }
+            costs.put(Util.getPackageName(unquote(values[columns[0]])), Cost.of(cost));
+        }
+        return costs;
+    }
+
+    private static String unquote(String value) {
+        String stripped = value.strip();
+        if (stripped.length() >= 2 && stripped.startsWith("\"") && stripped.endsWith("\"")) {
+            return stripped.substring(1, stripped.length() - 1).strip();
+        }
+        return stripped;
+    }
+
+    /**
+     * Splits the given services into the given number of shards.
+     *
+     * @param services   services to split
+     * @param costs      package name of the service -> cost, which need not have all the services
+     * @param shardCount number of shards, which should not be greater than the number of services
+     * @return the shards, in which the costs are the shares of the totals of all the services
+     */
+    static List<Shard> split(Collection<String> services, Map<String, Cost> costs, int shardCount) {
+        List<String> sortedServices = new ArrayList<>(new TreeSet<>(services));
+        double[] average = new double[DIMENSIONS.size()];
+        long knownCount = sortedServices.stream().filter(service -> costs.containsKey(Util.getPackageName(service)))
+                .count();
+        for (String service : sortedServices) {
+            Cost cost = costs.get(Util.getPackageName(service));
+            for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                average[dimension] += cost == null ? 0 : cost.get(dimension) / knownCount;
+            }
+        }
+        Map<String, double[]> values = new HashMap<>();
+        double[] totals = new double[DIMENSIONS.size()];
+        for (String service : sortedServices) {
+            Cost cost = costs.get(Util.getPackageName(service));
+            double[] value = cost == null ? average : cost.toArray();
+            values.put(service, value);
+            for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                totals[dimension] += value[dimension];
+            }
+        }
+        // A dimension that is zero for all the services does not tell the services apart, and all the services are
+        // then counted as equal in it, so that services without any cost are spread by their count.
+        Map<String, double[]> shares = new HashMap<>();
+        for (String service : sortedServices) {
+            double[] share = new double[DIMENSIONS.size()];
+            for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                share[dimension] = totals[dimension] == 0 ? 1.0 / sortedServices.size()
+                        : values.get(service)[dimension] / totals[dimension];
+            }
+            shares.put(service, share);
+        }
+
+        sortedServices.sort(Comparator.comparingDouble((String service) -> -max(shares.get(service))));
+        List<Set<String>> shardServices = new ArrayList<>();
+        List<double[]> shardShares = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shardServices.add(new TreeSet<>());
+            shardShares.add(new double[DIMENSIONS.size()]);
+        }
+        for (String service : sortedServices) {
+            int best = -1;
+            double bestLoad = Double.MAX_VALUE;
+            for (int i = 0; i < shardCount; i++) {
+                double load = 0;
+                for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                    load = Math.max(load, shardShares.get(i)[dimension] + shares.get(service)[dimension]);
+                }
+                // On a tie, the shard with fewer services is preferred. An empty shard is never more loaded than the
+                // others, so every shard gets at least one service.
+                if (best == -1 || load < bestLoad - EPSILON || load <= bestLoad + EPSILON
+                        && shardServices.get(i).size() < shardServices.get(best).size()) {
+                    best = i;
+                    bestLoad = load;
+                }
+            }
+            shardServices.get(best).add(service);
+            for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                shardShares.get(best)[dimension] += shares.get(service)[dimension];
+            }
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new Shard(shardServices.get(i), Cost.of(shardShares.get(i))));
+        }
+        return shards;
+    }
+
+    private static double max(double[] values) {
+        double max = 0;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * The cost of a service, or the share of a shard in the total cost of the services.
+     */
+    record Cost(double cpu, double memory, double rps) {
+
+        static Cost of(double[] values) {
+            return new Cost(values[0], values[1], values[2]);
+        }
+
+        /**
+         * Returns the value of the given index of the {@link #DIMENSIONS}.
+         */
+        double get(int dimension) {
+            return toArray()[dimension];
+        }
+
+        double[] toArray() {
+            return new double[]{cpu, memory, rps};
+        }
+    }
+
+    /**
+     * A shard of the services.
+     *
+     * @param services services of the shard, in their canonical order
+     * @param share    share of the total cost of all the services in each dimension
+     */
+    record Shard(Set<String> services, Cost share) {
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.projects.TomlDocument;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static io.ballerina.consolidate.Util.BALLERINA_TOML;
+
+/**
+ * Updates the services of a consolidator package without losing concurrent updates.
+ * <p>
+ * Updates of the same package within this process are queued, and the thread that gets to write next applies all the
+ * queued updates in a single rewrite of the Ballerina.toml. Across processes, the rewrite is done while holding a lock
+ * on a file in the target directory of the package, and the Ballerina.toml is re-read after acquiring it. The new
+ * content is written atomically, so that the file is never left partially written. The [[dependency]] entries of the
+ * services pinned to a version are updated together with the services.
+ */
+class ServicesUpdater {
+    static final String LOCK_FILE = "consolidate-packages.lock";
+
+    private static final Map<Path, ServicesUpdater> UPDATERS = new ConcurrentHashMap<>();
+
+    private final Path packageRoot;
+    private final Queue<PendingUpdate> pendingUpdates = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private ServicesUpdater(Path packageRoot) {
+        this.packageRoot = packageRoot;
+    }
+
+    static ServicesUpdater of(Path packageRoot) throws IOException {
+        return UPDATERS.computeIfAbsent(packageRoot.toRealPath(), ServicesUpdater::new);
+    }
+
+    /**
+     * Applies the given update to the services of the package, together with the updates queued by other threads.
+     *
+     * @param update update to apply on the existing services
+     * @return false if the package does not have a consolidate-packages tool entry
+     */
+    boolean update(Consumer<Set<String>> update) throws IOException {
+        PendingUpdate pendingUpdate = new PendingUpdate(update);
+        pendingUpdates.add(pendingUpdate);
+        writeLock.lock();
+        try {
+            if (!pendingUpdate.isDone) {
+                List<PendingUpdate> batch = new ArrayList<>();
+                for (PendingUpdate next = pendingUpdates.poll(); next != null; next = pendingUpdates.poll()) {
+                    batch.add(next);
+                }
+                boolean hasToolEntry = false;
+                Exception error = null;
+                try {
+                    hasToolEntry = write(batch);
+                } catch (IOException | RuntimeException e) {
+                    error = e;
+                }
+                for (PendingUpdate completed : batch) {
+                    completed.isDone = true;
+                    completed.hasToolEntry = hasToolEntry;
+                    completed.error = error;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (pendingUpdate.error instanceof IOException e) {
+            throw e;
+        } else if (pendingUpdate.error instanceof RuntimeException e) {
+            throw e;
+        }
+        return pendingUpdate.hasToolEntry;
+    }
+
+    private boolean write(List<PendingUpdate> batch) throws IOException {
+        Path targetPath = Files.createDirectories(packageRoot.resolve("target"));
+        try (FileChannel lockChannel = FileChannel.open(targetPath.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            // The lock is released when the channel is closed.
+            lockChannel.lock();
+            Path balTomlPath = packageRoot.resolve(BALLERINA_TOML);
+            String content = Files.readString(balTomlPath);
+            TomlDocument balToml = TomlDocument.from(BALLERINA_TOML, content);
+            Optional<TomlTableNode> options = Util.getToolOptions(balToml.toml().rootNode());
+            if (options.isEmpty()) {
+                return false;
+            }
+            Set<String> services = Util.getServices(options.get());
+            Set<String> previous = Set.copyOf(services);
+            for (PendingUpdate pendingUpdate : batch) {
+                pendingUpdate.update.accept(services);
+            }
+            String updated = Util.replaceServicesArray(content, options.get(), services);
+            Util.writeAtomically(balTomlPath, Util.replaceDependencyPins(updated, previous, services));
+            return true;
+        }
+    }
+
+    /**
+     * An update waiting to be written. The fields are only accessed while holding the write lock.
+     */
+    private static class PendingUpdate {
+        private final Consumer<Set<String>> update;
+        private boolean isDone;
+        private boolean hasToolEntry;
+        private Exception error;
+
+        private PendingUpdate(Consumer<Set<String>> update) {
+            this.update = update;
+        }
+    }
+}
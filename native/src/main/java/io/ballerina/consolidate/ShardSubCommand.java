@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.cli.BLauncherCmd;
+import io.ballerina.cli.cmd.CommandUtil;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.ballerina.consolidate.Util.HYPHEN;
+import static io.ballerina.consolidate.Util.SHARD;
+
+@CommandLine.Command(name = SHARD,
+        description = "Splits the given services into consolidator packages of a similar cost")
+public class ShardSubCommand implements BLauncherCmd {
+    private static final String DEFAULT_PACKAGE_PATH = "consolidator";
+    private final PrintStream outStream;
+    private final PrintStream errStream;
+    boolean exit;
+
+    @CommandLine.Parameters (arity = "0..1")
+    private String servicesStr;
+
+    @CommandLine.Option(names = {"--shards"})
+    private int shardCount;
+
+    @CommandLine.Option(names = {"--costs"})
+    private String costsPath;
+
+    @CommandLine.Option(names = {"--package-path"})
+    private String packagePath;
+
+    @CommandLine.Option(names = {"--help"})
+    private boolean help;
+
+    // the consolidator package that is split, if the services are not given
+    private Path sourcePackage;
+    private String sourceToml;
+    private TomlTableNode sourceOptions;
+
+    public ShardSubCommand() {
+        this.outStream = System.out;
+        this.errStream = System.err;
+        this.exit = true;
+        CommandUtil.initJarFs();
+    }
+
+    public ShardSubCommand(PrintStream printStream) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.help = true;
+    }
+
+    public ShardSubCommand(PrintStream printStream, String servicesStr, int shardCount, String costsPath,
+                           String packagePath, boolean exit) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.servicesStr = servicesStr;
+        this.shardCount = shardCount;
+        this.costsPath = costsPath;
+        this.packagePath = packagePath;
+        this.exit = exit;
+        CommandUtil.initJarFs();
+    }
+
+    @Override
+    public void execute() {
+        if (help) {
+            outStream.println(Util.getHelpText(getName()));
+            return;
+        }
+
+        Optional<Set<String>> services;
+        try {
+            services = servicesStr != null ? Util.getServices(servicesStr, SHARD, errStream)
+                    : Util.getServicesOfCurrentPackage(errStream);
+            if (servicesStr == null && services.isPresent()) {
+                sourcePackage = Paths.get(System.getProperty("user.dir")).toAbsolutePath();
+                sourceToml = Files.readString(sourcePackage.resolve(Util.BALLERINA_TOML));
+                sourceOptions = Util.readToolOptions(sourcePackage).orElseThrow();
+            }
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to extract the services. ", null, false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+        if (services.isEmpty()) {
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+        if (shardCount < 1 || shardCount > services.get().size()) {
+            CommandUtil.printError(this.errStream, "'--shards' should be between 1 and the number of services, "
+                    + services.get().size(), Util.getUsage(SHARD), false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+
+        Map<String, ServiceSharding.Cost> costs;
+        try {
+            costs = costsPath != null ? ServiceSharding.readCosts(Paths.get(costsPath)) : Map.of();
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to read the costs, reason: " + e.getMessage(),
+                    null, false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+
+        try {
+            createShards(services.get(), costs);
+        } catch (IOException | URISyntaxException e) {
+            CommandUtil.printError(this.errStream, "Package creation failed, reason: " + e.getMessage(),
+                    null, false);
+            CommandUtil.exitError(this.exit);
+        }
+    }
+
+    private void createShards(Set<String> services, Map<String, ServiceSharding.Cost> costs)
+            throws IOException, URISyntaxException {
+        for (int i = 1; i <= shardCount; i++) {
+            Path shardPath = getShardPath(i);
+            if (Files.exists(shardPath)) {
+                CommandUtil.printError(this.errStream, "'" + shardPath + "' already exists", null, false);
+                CommandUtil.exitError(this.exit);
+                return;
+            }
+        }
+
+        outStream.println("Splitting " + services.size() + " services into " + shardCount
+                + " consolidator packages");
+        List<String> unknownCosts = services.stream()
+                .filter(service -> !costs.containsKey(Util.getPackageName(service))).toList();
+        if (costsPath != null && !unknownCosts.isEmpty()) {
+            outStream.println("\nThe costs of the following services were not found. They are assumed to cost the "
+                    + "average of the others:");
+            for (String service : unknownCosts) {
+                outStream.println("\t" + service);
+            }
+        }
+
+        List<ServiceSharding.Shard> shards = ServiceSharding.split(services, costs, shardCount);
+        outStream.println();
+        for (int i = 0; i < shards.size(); i++) {
+            ServiceSharding.Shard shard = shards.get(i);
+            Path shardPath = getShardPath(i + 1);
+            outStream.print("\t" + shardPath.getFileName() + ": " + shard.services().size() + " services");
+            if (costsPath != null) {
+                outStream.printf(Locale.ROOT, ", cpu %.1f%%, memory %.1f%%, rps %.1f%%", shard.share().cpu() * 100,
+                        shard.share().memory() * 100, shard.share().rps() * 100);
+            }
+            outStream.println();
+            for (String service : shard.services()) {
+                outStream.println("\t\t" + service);
+            }
+            NewSubCommand.initConsolidatorPackage(shardPath, shard.services(), sourceOptions == null ? ""
+                    : Util.copyToolOptions(sourceToml, sourceOptions), outStream);
+        }
+
+        outStream.println("\nSuccessfully created " + shards.size() + " consolidator packages.\n");
+        outStream.println("What's next?\n\t Execute 'bal build' on each package to generate the executables.");
+        BalaRepository repository = BalaRepository.fromUserHome();
+        Util.printUnknownServices(services, repository, outStream);
+        for (int i = 0; i < shards.size(); i++) {
+            Util.lockDependencies(getShardPath(i + 1), shards.get(i).services(), repository, outStream);
+        }
+    }
+
+    /**
+     * Returns the path of the given shard. The shards of the consolidator package in the current directory are
+     * created next to it, named after it, unless a package path is given.
+     */
+    private Path getShardPath(int shard) {
+        if (packagePath == null && sourcePackage != null && sourcePackage.getParent() != null) {
+            return sourcePackage.getParent().resolve(sourcePackage.getFileName() + "_" + shard);
+        }
+        return Paths.get((packagePath != null ? packagePath : DEFAULT_PACKAGE_PATH) + "_" + shard);
+    }
+
+    @Override
+    public String getName() {
+        return Util.TOOL_NAME + HYPHEN + SHARD;
+    }
+
+    @Override
+    public void printLongDesc(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void printUsage(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void setParentCmdParser(CommandLine commandLine) {
+
+    }
+}
@@ -19,17 +19,24 @@ package io.ballerina.consolidate;
 
 import io.ballerina.cli.cmd.CommandUtil;
 import io.ballerina.cli.utils.FileUtils;
+import io.ballerina.projects.ProjectException;
+import io.ballerina.projects.TomlDocument;
 import io.ballerina.projects.util.ProjectUtils;
 import io.ballerina.toml.semantic.TomlType;
 import io.ballerina.toml.semantic.ast.TomlArrayValueNode;
+import io.ballerina.toml.semantic.ast.TomlBooleanValueNode;
+import io.ballerina.toml.semantic.ast.TomlDoubleValueNodeNode;
 import io.ballerina.toml.semantic.ast.TomlKeyValueNode;
+import io.ballerina.toml.semantic.ast.TomlLongValueNode;
 import io.ballerina.toml.semantic.ast.TomlStringValueNode;
+import io.ballerina.toml.semantic.ast.TomlTableArrayNode;
 import io.ballerina.toml.semantic.ast.TomlTableNode;
 import io.ballerina.toml.semantic.ast.TomlValueNode;
 import io.ballerina.toml.semantic.ast.TopLevelNode;
 import io.ballerina.toml.validator.schema.ArraySchema;
 import io.ballerina.toml.validator.schema.Schema;
 import io.ballerina.toml.validator.schema.StringSchema;
+import io.ballerina.tools.text.TextRange;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -37,15 +44,25 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -55,7 +72,16 @@ public class Util {
     static final String NEW = "new";
     static final String ADD = "add";
     static final String REMOVE = "remove";
+    static final String FLEET = "fleet";
+    static final String ANALYZE = "analyze";
+    static final String FOOTPRINT = "footprint";
+    static final String WATCH = "watch";
+    static final String SHARD = "shard";
     static final String HYPHEN = "-";
+    static final String GLOB = "*";
+    static final String VERSION_SEPARATOR = ":";
+
+    private static ServiceNameRule serviceNameRule;
 
     private Util() {}
 
@@ -65,29 +91,200 @@ public class Util {
             CommandUtil.printError(errStream, "no services provided", getUsage(subCmd), false);
             return Optional.empty();
         }
-        Set<String> serviceArray =  new LinkedHashSet<>(Arrays.asList(services.split(","))); ;
-        Schema schema = Schema.from(FileUtils.readSchema(TOOL_NAME, Util.class.getClassLoader()));
-        ArraySchema properties = (ArraySchema) schema.properties().get("services");
-        Optional<String> optionalPattern = ((StringSchema) properties.items()).pattern();
-        if (optionalPattern.isEmpty()) {
-            throw new IllegalStateException("unable to find the pattern for services in the tool schema");
+        Set<String> serviceArray =  new LinkedHashSet<>(Arrays.asList(services.split(",")));
+        if (serviceArray.stream().anyMatch(service -> service.contains(GLOB))) {
+            Optional<Set<String>> expanded = expandServices(serviceArray, PackageIndex.load(), errStream);
+            if (expanded.isEmpty()) {
+                return Optional.empty();
+            }
+            serviceArray = expanded.get();
         }
+        return validateServices(serviceArray, errStream) ? Optional.of(serviceArray) : Optional.empty();
+    }
+
+    /**
+     * Expands the services given as patterns, such as 'myorg/*', to the matching packages in the index.
+     *
+     * @return the expanded services, or empty if a pattern does not match any package
+     */
+    static Optional<Set<String>> expandServices(Set<String> services, PackageIndex index, PrintStream errStream) {
+        Set<String> expanded = new LinkedHashSet<>();
         boolean isValid = true;
-        for (String service : serviceArray) {
-            if (!service.matches(optionalPattern.get())) {
-                String msg = properties.items().message().get("pattern");
-                CommandUtil.printError(errStream, "'" + service + "': " + msg, null, false);
+        for (String service : services) {
+            if (!service.contains(GLOB)) {
+                expanded.add(service);
+                continue;
+            }
+            Set<String> matches = index.match(service);
+            if (matches.isEmpty()) {
+                CommandUtil.printError(errStream, "'" + service + "': no packages in the local repositories match " +
+                        "the pattern", null, false);
                 isValid = false;
             }
+            expanded.addAll(matches);
+        }
+        return isValid ? Optional.of(expanded) : Optional.empty();
+    }
+
+    /**
+     * Prints the services that are not in the local repositories, which are most likely misspelled or not yet
+     * published. Only the given services are looked up, and the lookup is best effort, as the services are pulled when
+     * the package is built. Nothing is printed when the repositories are empty, as all the services would be listed.
+     */
+    static void printUnknownServices(Collection<String> services, BalaRepository repository, PrintStream outStream) {
+        List<String> unknownServices = new ArrayList<>();
+        try {
+            if (repository.isEmpty()) {
+                return;
+            }
+            for (String service : services) {
+                if (repository.findService(service).isEmpty()) {
+                    unknownServices.add(service);
+                }
+            }
+        } catch (IOException e) {
+            return;
+        }
+        if (!unknownServices.isEmpty()) {
+            outStream.println("\nThe following services were not found in the local repositories. They will be " +
+                    "pulled when the package is built:");
+            for (String service : unknownServices) {
+                outStream.println("\t" + service);
+            }
+        }
+    }
+
+    /**
+     * Merges the locked dependency versions of the services found in the repositories into the Dependencies.toml of
+     * the package, so that the first build of the package does not resolve them from scratch. Locking is best effort,
+     * as the dependencies are resolved when the package is built in any case.
+     */
+    static void lockDependencies(Path packageRoot, Collection<String> services, BalaRepository repository,
+                                 PrintStream outStream) {
+        lockDependencies(packageRoot, services, repository, false, outStream);
+    }
+
+    /**
+     * Merges the Dependencies.toml of the package again from only the given services, if it has one, so that it does
+     * not keep the versions locked for the services removed from the package.
+     */
+    static void relockDependencies(Path packageRoot, Collection<String> services, BalaRepository repository,
+                                   PrintStream outStream) {
+        if (Files.isRegularFile(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML))) {
+            lockDependencies(packageRoot, services, repository, true, outStream);
+        }
+    }
+
+    private static void lockDependencies(Path packageRoot, Collection<String> services, BalaRepository repository,
+                                         boolean relock, PrintStream outStream) {
+        try {
+            DependencyLock lock = DependencyLock.read(packageRoot);
+            if (relock) {
+                lock.clear();
+            }
+            List<String> notFound = lock.merge(services, repository);
+            if (!relock && notFound.size() == services.size()) {
+                return;
+            }
+            lock.write(packageRoot);
+            outStream.println("\nLocked the versions of " + lock.size() + " packages in the "
+                    + DependencyLock.DEPENDENCIES_TOML + ", from the dependencies of "
+                    + (services.size() - notFound.size()) + " services in the local repositories.");
+            if (!lock.getConflicts().isEmpty()) {
+                outStream.println("The services depend on incompatible versions of the following packages, which are "
+                        + "not locked. Execute 'bal " + TOOL_NAME + " analyze' to find these services.");
+                for (String conflict : lock.getConflicts()) {
+                    outStream.println("\t" + conflict);
+                }
+            }
+        } catch (IOException | ProjectException e) {
+            outStream.println("\nFailed to lock the dependency versions of the services, reason: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Validates the given service names against the pattern in the tool options schema and reports the invalid ones.
+     *
+     * @return true if all the services are valid
+     */
+    static boolean validateServices(Collection<String> services, PrintStream errStream) throws IOException {
+        ServiceNameRule rule = getServiceNameRule();
+        boolean isValid = true;
+        for (String service : services) {
+            if (!rule.pattern().matcher(service).matches()) {
+                CommandUtil.printError(errStream, "'" + service + "': " + rule.message(), null, false);
+                isValid = false;
+            }
+        }
+        return isValid;
+    }
+
+    /**
+     * Returns the service name rule of the tool options schema. The schema is read and the pattern is compiled only
+     * once, and shared by all the commands, including the ones running concurrently in fleet mode.
+     */
+    private static synchronized ServiceNameRule getServiceNameRule() throws IOException {
+        if (serviceNameRule == null) {
+            Schema schema = Schema.from(FileUtils.readSchema(TOOL_NAME, Util.class.getClassLoader()));
+            ArraySchema properties = (ArraySchema) schema.properties().get("services");
+            Optional<String> optionalPattern = ((StringSchema) properties.items()).pattern();
+            if (optionalPattern.isEmpty()) {
+                throw new IllegalStateException("unable to find the pattern for services in the tool schema");
+            }
+            serviceNameRule = new ServiceNameRule(Pattern.compile(optionalPattern.get()),
+                    properties.items().message().get("pattern"));
         }
-        return isValid ? Optional.of(serviceArray) : Optional.empty();
+        return serviceNameRule;
     }
 
-     static Set<String> getServices(TomlTableNode tomlTableNode) {
-        Set<String> elements = new HashSet<>();
-        TopLevelNode servicesNode = tomlTableNode.entries().get("services");
-        if (servicesNode.kind() != null && servicesNode.kind() == TomlType.KEY_VALUE) {
-            TomlKeyValueNode keyValueNode = (TomlKeyValueNode) servicesNode;
+    /**
+     * Returns the package name of the given service, without the version it may be pinned to.
+     */
+    static String getPackageName(String service) {
+        int separator = service.indexOf(VERSION_SEPARATOR);
+        return separator == -1 ? service : service.substring(0, separator);
+    }
+
+    /**
+     * Returns the version the given service is pinned to, if any.
+     */
+    static Optional<String> getVersion(String service) {
+        int separator = service.indexOf(VERSION_SEPARATOR);
+        return separator == -1 ? Optional.empty() : Optional.of(service.substring(separator + 1));
+    }
+
+    /**
+     * Adds the given services, replacing the existing entries of the same packages so that a service is listed only
+     * once, with the version it is pinned to if any.
+     */
+    static void addServices(Set<String> services, Collection<String> added) {
+        removeServices(services, added);
+        services.addAll(added);
+    }
+
+    /**
+     * Removes the entries of the given services' packages, whether or not they are pinned to a version.
+     */
+    static void removeServices(Set<String> services, Collection<String> removed) {
+        Set<String> packageNames = removed.stream().map(Util::getPackageName).collect(Collectors.toSet());
+        services.removeIf(service -> packageNames.contains(getPackageName(service)));
+    }
+
+    /**
+     * Returns the services in the given tool options table in their canonical (sorted) order.
+     */
+    static Set<String> getServices(TomlTableNode tomlTableNode) {
+        return new TreeSet<>(getStringArray(tomlTableNode, "services"));
+    }
+
+    /**
+     * Returns the string elements of the array with the given key in the table, or an empty list if there is none.
+     */
+    static List<String> getStringArray(TomlTableNode tomlTableNode, String key) {
+        List<String> elements = new ArrayList<>();
+        TopLevelNode arrayNode = tomlTableNode.entries().get(key);
+        if (arrayNode != null && arrayNode.kind() == TomlType.KEY_VALUE) {
+            TomlKeyValueNode keyValueNode = (TomlKeyValueNode) arrayNode;
             TomlValueNode valueNode = keyValueNode.value();
             if (valueNode.kind() == TomlType.ARRAY) {
                 TomlArrayValueNode arrayValueNode = (TomlArrayValueNode) valueNode;
@@ -101,19 +298,416 @@ public class Util {
         return elements;
     }
 
-     static void replaceServicesArrayInToml(Set<String> allServices, Path balTomlPath)
+    /**
+     * Returns the value of the string with the given key in the table.
+     */
+    static Optional<String> getString(TomlTableNode tomlTableNode, String key) {
+        TopLevelNode node = tomlTableNode.entries().get(key);
+        if (node != null && node.kind() == TomlType.KEY_VALUE
+                && ((TomlKeyValueNode) node).value().kind() == TomlType.STRING) {
+            return Optional.of(((TomlStringValueNode) ((TomlKeyValueNode) node).value()).getValue());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the value of the boolean with the given key in the table.
+     */
+    static Optional<Boolean> getBoolean(TomlTableNode tomlTableNode, String key) {
+        TopLevelNode node = tomlTableNode.entries().get(key);
+        if (node != null && node.kind() == TomlType.KEY_VALUE
+                && ((TomlKeyValueNode) node).value().kind() == TomlType.BOOLEAN) {
+            return Optional.of(((TomlBooleanValueNode) ((TomlKeyValueNode) node).value()).getValue());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the value of the integer with the given key in the table.
+     */
+    static Optional<Long> getLong(TomlTableNode tomlTableNode, String key) {
+        TopLevelNode node = tomlTableNode.entries().get(key);
+        if (node != null && node.kind() == TomlType.KEY_VALUE
+                && ((TomlKeyValueNode) node).value().kind() == TomlType.INTEGER) {
+            return Optional.of(((TomlLongValueNode) ((TomlKeyValueNode) node).value()).getValue());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the value of the number with the given key in the table, which may be an integer or a float.
+     */
+    static Optional<Double> getDouble(TomlTableNode tomlTableNode, String key) {
+        TopLevelNode node = tomlTableNode.entries().get(key);
+        if (node != null && node.kind() == TomlType.KEY_VALUE
+                && ((TomlKeyValueNode) node).value().kind() == TomlType.DOUBLE) {
+            return Optional.of(((TomlDoubleValueNodeNode) ((TomlKeyValueNode) node).value()).getValue());
+        }
+        return getLong(tomlTableNode, key).map(Long::doubleValue);
+    }
+
+    /**
+     * Returns the table with the given key in the table.
+     */
+    static Optional<TomlTableNode> getTable(TomlTableNode tomlTableNode, String key) {
+        TopLevelNode node = tomlTableNode.entries().get(key);
+        if (node != null && node.kind() == TomlType.TABLE) {
+            return Optional.of((TomlTableNode) node);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the options table of the first consolidate-packages tool entry in the given Ballerina.toml root node.
+     */
+    static Optional<TomlTableNode> getToolOptions(TomlTableNode rootNode) {
+        TopLevelNode toolNode = rootNode.entries().get("tool");
+        if (toolNode == null || toolNode.kind() != TomlType.TABLE) {
+            return Optional.empty();
+        }
+        TopLevelNode toolEntries = ((TomlTableNode) toolNode).entries().get(TOOL_NAME);
+        if (toolEntries == null || toolEntries.kind() != TomlType.TABLE_ARRAY) {
+            return Optional.empty();
+        }
+        for (TomlTableNode toolEntry : ((TomlTableArrayNode) toolEntries).children()) {
+            TopLevelNode optionsNode = toolEntry.entries().get("options");
+            if (optionsNode != null && optionsNode.kind() == TomlType.TABLE) {
+                return Optional.of((TomlTableNode) optionsNode);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reads the services of the consolidate-packages tool entry by parsing only the Ballerina.toml of the package.
+     * The package itself is neither loaded nor resolved.
+     *
+     * @param packageRoot root directory of the consolidator package
+     * @return the services, or empty if the package does not have a consolidate-packages tool entry
+     */
+    static Optional<Set<String>> readServices(Path packageRoot) throws IOException {
+        return readToolOptions(packageRoot).map(Util::getServices);
+    }
+
+    /**
+     * Reads the options of the consolidate-packages tool entry by parsing only the Ballerina.toml of the package.
+     *
+     * @param packageRoot root directory of the consolidator package
+     * @return the options, or empty if the package does not have a consolidate-packages tool entry
+     */
+    static Optional<TomlTableNode> readToolOptions(Path packageRoot) throws IOException {
+        Path balTomlPath = packageRoot.resolve(BALLERINA_TOML);
+        TomlDocument balToml = TomlDocument.from(BALLERINA_TOML, Files.readString(balTomlPath));
+        return getToolOptions(balToml.toml().rootNode());
+    }
+
+    /**
+     * Reads the services of the consolidator package in the current directory, for the commands that default to it
+     * when no services are given.
+     *
+     * @return the services, or empty if the current directory is not a consolidator package
+     */
+    static Optional<Set<String>> getServicesOfCurrentPackage(PrintStream errStream) throws IOException {
+        Path packageRoot = Paths.get(System.getProperty("user.dir"));
+        if (!Files.isRegularFile(packageRoot.resolve(BALLERINA_TOML))) {
+            CommandUtil.printError(errStream, "Current directory is not a valid Ballerina package. Provide the " +
+                    "services, or run the command within a consolidator package", null, false);
+            return Optional.empty();
+        }
+        Optional<Set<String>> services = readServices(packageRoot);
+        if (services.isEmpty()) {
+            CommandUtil.printError(errStream, "'" + TOOL_NAME + "' tool entry not found in the " + BALLERINA_TOML,
+                    null, false);
+        }
+        return services;
+    }
+
+    /**
+     * Applies the given update to the services of the consolidate-packages tool entry and writes them back to the
+     * Ballerina.toml of the package. Concurrent updates of the same package are safe, see {@link ServicesUpdater}.
+     *
+     * @param packageRoot root directory of the consolidator package
+     * @param update      update to apply on the existing services
+     * @return false if the package does not have a consolidate-packages tool entry
+     */
+    static boolean updateServices(Path packageRoot, Consumer<Set<String>> update) throws IOException {
+        return ServicesUpdater.of(packageRoot).update(update);
+    }
+
+    /**
+     * Replaces the services array of the given tool options in the Ballerina.toml content. The array node is located
+     * using the parsed toml tree and only its text range is replaced, so the rest of the file including comments and
+     * formatting is kept as it is. A multi-line array is written back with one service per line, and the comments
+     * within it are kept with the service that they are written above or next to. The comments of a service that is
+     * no longer in the array are dropped with it.
+     *
+     * @param content      content of the Ballerina.toml the options table is parsed from
+     * @param toolOptions  options table of the consolidate-packages tool entry
+     * @param services     services to write
+     * @return the updated content
+     */
+    static String replaceServicesArray(String content, TomlTableNode toolOptions, Collection<String> services)
             throws IOException {
-        String content = Files.readString(balTomlPath);
-        Pattern pattern = Pattern.compile("options\\.services\\s*=\\s*\\[(?:\\s*\"[^\"]+\"\\s*,?\\s*)+]",
-                Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(content);
-        if (!matcher.find()) {
-            return;
+        TopLevelNode servicesNode = toolOptions.entries().get("services");
+        if (servicesNode == null || servicesNode.kind() != TomlType.KEY_VALUE
+                || ((TomlKeyValueNode) servicesNode).value().kind() != TomlType.ARRAY) {
+            throw new IOException("'options.services' array not found in the " + BALLERINA_TOML);
+        }
+        TomlArrayValueNode arrayNode = (TomlArrayValueNode) ((TomlKeyValueNode) servicesNode).value();
+        TextRange arrayRange = arrayNode.location().textRange();
+        int start = arrayRange.startOffset();
+        int end = arrayRange.endOffset();
+
+        StringBuilder array = new StringBuilder(services.size() * 24 + 8).append('[');
+        int newLine = content.indexOf('\n', start);
+        if (newLine != -1 && newLine < end) {
+            String indent = getIndentation(content, start);
+            String elementIndent = getIndentation(content, newLine + 1);
+            if (elementIndent.length() <= indent.length()) {
+                elementIndent = indent + "    ";
+            }
+            Map<String, ServiceComments> comments = new HashMap<>();
+            int lineEnd = newLine;
+            List<TomlValueNode> elements = arrayNode.elements();
+            if (elements.isEmpty() || elements.get(0).location().textRange().startOffset() > newLine) {
+                // A comment after the opening bracket
+                array.append(getComment(content, start + 1, newLine));
+            }
+            for (int i = 0; i < elements.size(); i++) {
+                int elementStart = elements.get(i).location().textRange().startOffset();
+                int elementLineStart = content.lastIndexOf('\n', elementStart - 1) + 1;
+                List<String> leading = elementLineStart > lineEnd
+                        ? getCommentLines(content, lineEnd + 1, elementLineStart) : List.of();
+                int elementLineEnd = content.indexOf('\n', elementStart);
+                elementLineEnd = elementLineEnd == -1 || elementLineEnd > end ? end : elementLineEnd;
+                // Only the last element of a line can have a comment next to it
+                boolean isLastOnLine = i == elements.size() - 1
+                        || elements.get(i + 1).location().textRange().startOffset() > elementLineEnd;
+                String trailing = isLastOnLine ? getComment(content, elementStart, elementLineEnd) : "";
+                if (elements.get(i) instanceof TomlStringValueNode service) {
+                    comments.putIfAbsent(getPackageName(service.getValue()), new ServiceComments(leading, trailing));
+                }
+                lineEnd = Math.max(lineEnd, elementLineEnd);
+            }
+
+            int remaining = services.size();
+            for (String service : services) {
+                ServiceComments serviceComments = comments.getOrDefault(getPackageName(service),
+                        new ServiceComments(List.of(), ""));
+                for (String comment : serviceComments.leading()) {
+                    array.append('\n').append(comment);
+                }
+                array.append('\n').append(elementIndent).append('"').append(service).append('"')
+                        .append(--remaining > 0 ? "," : "").append(serviceComments.trailing());
+            }
+            // Comments after the last service
+            int closingLineStart = content.lastIndexOf('\n', end - 1) + 1;
+            if (closingLineStart > lineEnd) {
+                for (String comment : getCommentLines(content, lineEnd + 1, closingLineStart)) {
+                    array.append('\n').append(comment);
+                }
+            }
+            array.append('\n').append(indent);
+        } else {
+            String separator = "";
+            for (String service : services) {
+                array.append(separator).append('"').append(service).append('"');
+                separator = ", ";
+            }
+        }
+        array.append(']');
+
+        return new StringBuilder(content.length() - (end - start) + array.length())
+                .append(content, 0, start)
+                .append(array)
+                .append(content, end, content.length())
+                .toString();
+    }
+
+    /**
+     * Returns the comment between the given offsets on a line, with the whitespace before it, or an empty string if
+     * there is none.
+     */
+    private static String getComment(String content, int from, int to) {
+        int commentStart = content.indexOf('#', from);
+        if (commentStart == -1 || commentStart >= to) {
+            return "";
+        }
+        while (commentStart > from && Character.isWhitespace(content.charAt(commentStart - 1))) {
+            commentStart--;
+        }
+        return content.substring(commentStart, to).stripTrailing();
+    }
+
+    /**
+     * Returns the lines between the given offsets that only have a comment, as they are written.
+     */
+    private static List<String> getCommentLines(String content, int from, int to) {
+        List<String> comments = new ArrayList<>();
+        for (String line : content.substring(from, to).split("\n")) {
+            if (line.strip().startsWith("#")) {
+                comments.add(line.stripTrailing());
+            }
+        }
+        return comments;
+    }
+
+    /**
+     * Returns the options of the given tool options other than the services, as the dotted keys of a tool entry, so
+     * that a package created for some of the services is configured as the package the options are read from. The
+     * values are copied from the Ballerina.toml content as they are written.
+     *
+     * @param content     content of the Ballerina.toml the options table is parsed from
+     * @param toolOptions options table of the consolidate-packages tool entry
+     * @return the options, each on a line of its own
+     */
+    static String copyToolOptions(String content, TomlTableNode toolOptions) {
+        StringBuilder options = new StringBuilder();
+        for (Map.Entry<String, TopLevelNode> entry : toolOptions.entries().entrySet()) {
+            if (!entry.getKey().equals("services")) {
+                copyToolOption(content, "options." + entry.getKey(), entry.getValue(), options);
+            }
+        }
+        return options.toString();
+    }
+
+    private static void copyToolOption(String content, String key, TopLevelNode node, StringBuilder options) {
+        if (node.kind() == TomlType.KEY_VALUE) {
+            TextRange valueRange = ((TomlKeyValueNode) node).value().location().textRange();
+            options.append(key).append(" = ").append(content, valueRange.startOffset(), valueRange.endOffset())
+                    .append('\n');
+        } else if (node.kind() == TomlType.TABLE) {
+            for (Map.Entry<String, TopLevelNode> entry : ((TomlTableNode) node).entries().entrySet()) {
+                copyToolOption(content, key + "." + entry.getKey(), entry.getValue(), options);
+            }
+        }
+    }
+
+    /**
+     * Updates the [[dependency]] entries in the Ballerina.toml content, so that the services pinned to a version are
+     * resolved to at least that version. The exact version is kept by the Dependencies.toml and a sticky build. The
+     * entries of the services that were pinned before the update are removed unless they still match the pinned
+     * version, and an entry is appended for each newly pinned service. All the other entries are kept as they are.
+     *
+     * @param content  content of the Ballerina.toml
+     * @param previous services before the update
+     * @param services services after the update
+     * @return the updated content
+     */
+    static String replaceDependencyPins(String content, Collection<String> previous, Collection<String> services) {
+        Map<String, String> pins = getPins(services);
+        Set<String> managed = new HashSet<>(pins.keySet());
+        managed.addAll(getPins(previous).keySet());
+        if (managed.isEmpty()) {
+            return content;
+        }
+
+        List<int[]> removedSpans = new ArrayList<>();
+        Set<String> kept = new HashSet<>();
+        TopLevelNode dependencies = TomlDocument.from(BALLERINA_TOML, content).toml().rootNode().entries()
+                .get("dependency");
+        if (dependencies != null && dependencies.kind() == TomlType.TABLE_ARRAY) {
+            for (TomlTableNode dependency : ((TomlTableArrayNode) dependencies).children()) {
+                String packageName = getString(dependency, "org").orElse("") + "/"
+                        + getString(dependency, "name").orElse("");
+                if (!managed.contains(packageName)) {
+                    continue;
+                }
+                if (getString(dependency, "version").equals(Optional.ofNullable(pins.get(packageName)))
+                        && kept.add(packageName)) {
+                    continue;
+                }
+                getTableSpan(content, dependency).ifPresent(removedSpans::add);
+            }
+        }
+
+        StringBuilder updated = new StringBuilder(content);
+        removedSpans.sort(Comparator.comparingInt((int[] span) -> span[0]).reversed());
+        for (int[] span : removedSpans) {
+            updated.delete(span[0], span[1]);
+        }
+        for (Map.Entry<String, String> pin : pins.entrySet()) {
+            if (kept.contains(pin.getKey())) {
+                continue;
+            }
+            String[] orgAndName = pin.getKey().split("/", 2);
+            if (!updated.isEmpty() && updated.charAt(updated.length() - 1) != '\n') {
+                updated.append('\n');
+            }
+            updated.append("\n[[dependency]]\n")
+                    .append("org = \"").append(orgAndName[0]).append("\"\n")
+                    .append("name = \"").append(orgAndName[1]).append("\"\n")
+                    .append("version = \"").append(pin.getValue()).append("\"\n");
+        }
+        return updated.toString();
+    }
+
+    /**
+     * Returns the package name -> version of the services that are pinned to a version, in their canonical order.
+     */
+    private static Map<String, String> getPins(Collection<String> services) {
+        Map<String, String> pins = new TreeMap<>();
+        for (String service : services) {
+            getVersion(service).ifPresent(version -> pins.put(getPackageName(service), version));
+        }
+        return pins;
+    }
+
+    /**
+     * Returns the start and end offsets of the lines of the given [[dependency]] table in the content, including its
+     * header and a blank line before it.
+     */
+    private static Optional<int[]> getTableSpan(String content, TomlTableNode table) {
+        int start = Integer.MAX_VALUE;
+        int end = -1;
+        for (TopLevelNode entry : table.entries().values()) {
+            start = Math.min(start, entry.location().textRange().startOffset());
+            end = Math.max(end, entry.location().textRange().endOffset());
+        }
+        int header = end == -1 ? -1 : content.lastIndexOf("[[dependency]]", start);
+        if (header == -1) {
+            return Optional.empty();
+        }
+        start = content.lastIndexOf('\n', header - 1) + 1;
+        if (start >= 2 && content.charAt(start - 1) == '\n' && content.charAt(start - 2) == '\n') {
+            start--;
+        }
+        end = content.indexOf('\n', end);
+        return Optional.of(new int[]{start, end == -1 ? content.length() : end + 1});
+    }
+
+    /**
+     * Returns the leading whitespace of the line that contains the given offset.
+     */
+    private static String getIndentation(String content, int offset) {
+        int lineStart = content.lastIndexOf('\n', offset - 1) + 1;
+        int indentEnd = lineStart;
+        while (indentEnd < content.length()
+                && (content.charAt(indentEnd) == ' ' || content.charAt(indentEnd) == '\t')) {
+            indentEnd++;
+        }
+        return content.substring(lineStart, indentEnd);
+    }
+
+    /**
+     * Writes the given content to a temporary file next to the given file and renames it over the file, so that
+     * readers never see a partially written file.
+     */
+    static void writeAtomically(Path path, String content) throws IOException {
+        Path tempPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(tempPath, content);
+            if (Files.exists(path) && path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(tempPath, Files.getPosixFilePermissions(path));
+            }
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
         }
-        String existingStr = matcher.group();
-        String replacementStr = "options.services = [\"" + String.join("\", \"", allServices) + "\"]";
-        String modifiedContent = content.replace(existingStr, replacementStr);
-        Files.writeString(balTomlPath, modifiedContent, StandardOpenOption.TRUNCATE_EXISTING);
     }
 
     static String getHelpText(String commandName) {
@@ -139,4 +733,16 @@ public class Util {
     static String getUsage(String subCmd) {
         return "Run 'bal consolidate-package " + subCmd + "--help' for usage.";
     }
+
+    private record ServiceNameRule(Pattern pattern, String message) {
+    }
+
+    /**
+     * Comments written with a service within a multi-line services array.
+     *
+     * @param leading  the comment lines above the service
+     * @param trailing the comment next to the service, with the whitespace before it
+     */
+    private record ServiceComments(List<String> leading, String trailing) {
+    }
 }
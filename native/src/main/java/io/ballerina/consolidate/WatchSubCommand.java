@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.cli.BLauncherCmd;
+import io.ballerina.cli.cmd.CommandUtil;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static io.ballerina.consolidate.Util.BALLERINA_TOML;
+import static io.ballerina.consolidate.Util.HYPHEN;
+import static io.ballerina.consolidate.Util.WATCH;
+
+@CommandLine.Command(name = WATCH,
+        description = "Regenerates the sources of the consolidator package when its Ballerina.toml changes")
+public class WatchSubCommand implements BLauncherCmd {
+    static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+    private static final String GENERATED = "generated";
+
+    private final PrintStream outStream;
+    private final PrintStream errStream;
+    private final Path packageRoot;
+    private String lastFingerprint;
+    boolean exit;
+
+    @CommandLine.Option(names = {"--debounce"})
+    private long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+
+    @CommandLine.Option(names = {"--help"})
+    private boolean help;
+
+    public WatchSubCommand() {
+        this.outStream = System.out;
+        this.errStream = System.err;
+        this.packageRoot = Paths.get(System.getProperty("user.dir"));
+        this.exit = true;
+    }
+
+    public WatchSubCommand(PrintStream printStream) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.packageRoot = Paths.get(System.getProperty("user.dir"));
+        this.help = true;
+    }
+
+    public WatchSubCommand(PrintStream printStream, Path packageRoot, long debounceMillis, boolean exit) {
+        this.outStream = printStream;
+        this.errStream = printStream;
+        this.packageRoot = packageRoot;
+        this.debounceMillis = debounceMillis;
+        this.exit = exit;
+    }
+
+    @Override
+    public void execute() {
+        if (help) {
+            outStream.println(Util.getHelpText(getName()));
+            return;
+        }
+
+        if (!Files.isRegularFile(packageRoot.resolve(BALLERINA_TOML))) {
+            CommandUtil.printError(this.errStream, "Current directory is not a valid Ballerina package. Run the " +
+                    "command within a consolidator package", null, false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+        if (debounceMillis < 0) {
+            CommandUtil.printError(this.errStream, "'--debounce' should not be negative", null, false);
+            CommandUtil.exitError(this.exit);
+            return;
+        }
+
+        try {
+            watch();
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to watch the " + BALLERINA_TOML + ", reason: "
+                    + e.getMessage(), null, false);
+            CommandUtil.exitError(this.exit);
+        }
+    }
+
+    /**
+     * Regenerates the sources each time the Ballerina.toml changes, until the thread is interrupted. Editors and the
+     * add and remove commands write the file in bursts, so the sources are regenerated once the file has not changed
+     * for the debounce period.
+     */
+    private void watch() throws IOException {
+        try (WatchService watchService = packageRoot.getFileSystem().newWatchService()) {
+            // A file cannot be watched by itself, and the Ballerina.toml may be replaced rather than modified.
+            packageRoot.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            generate();
+            outStream.println("Watching '" + packageRoot.resolve(BALLERINA_TOML) + "' for changes. Press Ctrl+C "
+                    + "to stop.");
+            while (true) {
+                if (!isBalTomlChanged(watchService.take())) {
+                    continue;
+                }
+                WatchKey watchKey;
+                while ((watchKey = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    isBalTomlChanged(watchKey);
+                }
+                generate();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isBalTomlChanged(WatchKey watchKey) throws IOException {
+        boolean isChanged = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || Path.of(BALLERINA_TOML).equals(event.context())) {
+                isChanged = true;
+            }
+        }
+        if (!watchKey.reset()) {
+            throw new IOException("the package directory is no longer accessible");
+        }
+        return isChanged;
+    }
+
+    /**
+     * Regenerates the sources from the current options. The sources are only written when they differ from the last
+     * generated sources, which is when the services or the other options change.
+     */
+    private void generate() {
+        long startTime = System.nanoTime();
+        Optional<TomlTableNode> optionsTable;
+        try {
+            optionsTable = Util.readToolOptions(packageRoot);
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to read the " + BALLERINA_TOML + ", reason: "
+                    + e.getMessage(), null, false);
+            return;
+        }
+        if (optionsTable.isEmpty()) {
+            CommandUtil.printError(this.errStream, "'" + Util.TOOL_NAME + "' tool entry not found in the "
+                    + BALLERINA_TOML, null, false);
+            return;
+        }
+
+        ConsolidatorOptions options = ConsolidatorOptions.from(optionsTable.get());
+        List<String> errors = options.validate();
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                CommandUtil.printError(this.errStream, error, null, false);
+            }
+            return;
+        }
+        Map<String, String> sources = CodeGenerator.generateSources(options);
+        String fingerprint = CodeGenerator.fingerprint(sources);
+        if (fingerprint.equals(lastFingerprint)) {
+            return;
+        }
+        try {
+            if (CodeGenerator.writeSources(packageRoot.resolve(GENERATED), sources)) {
+                outStream.println("Regenerated the sources of " + options.services().size() + " services in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+            }
+            lastFingerprint = fingerprint;
+        } catch (IOException e) {
+            CommandUtil.printError(this.errStream, "Failed to write the sources, reason: " + e.getMessage(),
+                    null, false);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return Util.TOOL_NAME + HYPHEN + WATCH;
+    }
+
+    @Override
+    public void printLongDesc(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void printUsage(StringBuilder stringBuilder) {
+
+    }
+
+    @Override
+    public void setParentCmdParser(CommandLine commandLine) {
+
+    }
+}
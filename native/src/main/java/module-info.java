@@ -4,6 +4,8 @@ module consolidate.tool.main {
     requires info.picocli;
     requires java.compiler;
     requires io.ballerina.toml;
+    requires io.ballerina.parser;
     requires io.ballerina.tools.api;
+    requires com.google.gson;
     exports io.ballerina.consolidate;
 }
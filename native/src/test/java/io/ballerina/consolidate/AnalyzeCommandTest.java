@@ -0,0 +1,198 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static io.ballerina.consolidate.TestUtil.createBala;
+import static io.ballerina.consolidate.TestUtil.createBalaWithSource;
+import static io.ballerina.consolidate.TestUtil.getOutput;
+import static io.ballerina.consolidate.TestUtil.readOutput;
+import static io.ballerina.consolidate.TestUtil.testResources;
+
+public class AnalyzeCommandTest {
+
+    private final Path ballerinaHome = Paths.get("build/consolidatorAnalyzeTest/.ballerina").toAbsolutePath();
+    private ByteArrayOutputStream console;
+    private PrintStream printStream;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        createBala(ballerinaHome, "myorg", "svc1", "1.0.0", "java21", """
+                {
+                  "packages": [
+                    {"org": "myorg", "name": "svc1", "version": "1.0.0", "transitive": false},
+                    {"org": "ballerina", "name": "http", "version": "2.10.0", "transitive": false},
+                    {"org": "ballerina", "name": "log", "version": "2.10.0", "transitive": false},
+                    {"org": "myorg", "name": "common", "version": "1.0.0", "transitive": false}
+                  ],
+                  "modules": [
+                    {"org": "myorg", "package_name": "svc1", "version": "1.0.0", "module_name": "svc1",
+                     "dependencies": [
+                       {"org": "ballerina", "package_name": "http", "version": "2.10.0", "module_name": "http"},
+                       {"org": "myorg", "package_name": "common", "version": "1.0.0", "module_name": "utils"}
+                     ]}
+                  ]
+                }
+                """);
+        createBala(ballerinaHome, "myorg", "svc2", "1.2.0", "any", """
+                {
+                  "packages": [
+                    {"org": "ballerina", "name": "http", "version": "2.12.1", "transitive": false},
+                    {"org": "ballerina", "name": "log", "version": "2.10.0", "transitive": true},
+                    {"org": "ballerinax", "name": "kafka", "version": "3.0.0", "transitive": false},
+                    {"org": "otherorg", "name": "common", "version": "1.0.0", "transitive": false}
+                  ],
+                  "modules": [
+                    {"org": "myorg", "package_name": "svc2", "version": "1.2.0", "module_name": "svc2",
+                     "dependencies": [
+                       {"org": "otherorg", "package_name": "common", "version": "1.0.0", "module_name": "utils"}
+                     ]}
+                  ]
+                }
+                """);
+        createBala(ballerinaHome, "myorg", "svc3", "0.1.0", "java21", """
+                {
+                  "packages": [
+                    {"org": "ballerinax", "name": "kafka", "version": "4.0.0", "transitive": false}
+                  ]
+                }
+                """);
+        createBala(ballerinaHome, "myorg", "svc7", "1.0.0", "any", """
+                {
+                  "packages": [
+                    {"org": "ballerina", "name": "http", "version": "2.x", "transitive": false}
+                  ]
+                }
+                """);
+        createBalaWithSource(ballerinaHome, "myorg", "svc5", "1.0.0", "any", """
+                import ballerina/http;
+
+                listener http:Listener svc5Listener = new (8080);
+
+                service /svc5 on svc5Listener {
+                }
+
+                service /health on http:getDefaultListener() {
+                }
+                """);
+        createBalaWithSource(ballerinaHome, "myorg", "svc6", "1.0.0", "any", """
+                import ballerina/http;
+
+                service /svc6 on new http:Listener(8080) {
+                }
+
+                service /health on http:getDefaultListener() {
+                }
+                """);
+    }
+
+    @BeforeMethod
+    public void clearConsoleLog() {
+        this.console = new ByteArrayOutputStream();
+        this.printStream = new PrintStream(this.console);
+    }
+
+    @Test
+    public void testHelp() throws IOException {
+        AnalyzeSubCommand analyzeSubCommand = new AnalyzeSubCommand(printStream);
+        analyzeSubCommand.execute();
+        String buildLog = readOutput(console);
+        String expected = getOutput(testResources.resolve("command-outputs"), "help-analyze.txt");
+        Assert.assertTrue(buildLog.contains(expected), "Help text mismatched");
+    }
+
+    @Test
+    public void testAnalyzeCompatibleServices() throws IOException {
+        AnalyzeSubCommand analyzeSubCommand = new AnalyzeSubCommand(printStream, "myorg/svc1,myorg/svc2",
+                ballerinaHome, false);
+        analyzeSubCommand.execute();
+        String buildLog = readOutput(console).replace("\r", "");
+        Assert.assertTrue(buildLog.contains("""
+                Version conflicts:
+                \tballerina/http: 2.10.0 (myorg/svc1), 2.12.1 (myorg/svc2)
+                \t\tresolves to 2.12.1
+                """), "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("""
+                Shared dependencies:
+                \tballerina/log:2.10.0 (2 services)
+                """), "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("1 version conflicts (0 incompatible), 1 shared dependencies, "
+                        + "0 listener conflicts."),
+                "Actual output:" + buildLog);
+    }
+
+    @Test
+    public void testAnalyzeIncompatibleServices() throws IOException {
+        AnalyzeSubCommand analyzeSubCommand = new AnalyzeSubCommand(printStream,
+                "myorg/svc2,myorg/svc3,myorg/svc4", ballerinaHome, false);
+        analyzeSubCommand.execute();
+        String buildLog = readOutput(console).replace("\r", "");
+        Assert.assertTrue(buildLog.contains("""
+                \tballerinax/kafka: 3.0.0 (myorg/svc2), 4.0.0 (myorg/svc3)
+                \t\tincompatible versions
+                """), "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("include them in the analysis:\n\tmyorg/svc4\n"),
+                "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("Analyzed 2 services"), "Actual output:" + buildLog);
+    }
+
+    @Test
+    public void testAnalyzeInvalidDependencyGraph() throws IOException {
+        AnalyzeSubCommand analyzeSubCommand = new AnalyzeSubCommand(printStream, "myorg/svc1,myorg/svc7",
+                ballerinaHome, false);
+        analyzeSubCommand.execute();
+        String buildLog = readOutput(console).replace("\r", "");
+        Assert.assertTrue(buildLog.contains("left out of the analysis:\n\tmyorg/svc7: "), "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("Analyzed 1 services"), "Actual output:" + buildLog);
+    }
+
+    @Test
+    public void testAnalyzeListenerConflicts() throws IOException {
+        AnalyzeSubCommand analyzeSubCommand = new AnalyzeSubCommand(printStream, "myorg/svc5,myorg/svc6",
+                ballerinaHome, false);
+        analyzeSubCommand.execute();
+        String buildLog = readOutput(console).replace("\r", "");
+        Assert.assertTrue(buildLog.contains("""
+                Listeners:
+                \t8080: myorg/svc5:svc5Listener (http:Listener)
+                \t\t/svc5 (myorg/svc5)
+                \t8080: myorg/svc6 (http:Listener)
+                \t\t/svc6 (myorg/svc6)
+                \t9090: the default http listener
+                \t\t/health (myorg/svc5, myorg/svc6)
+                """), "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("""
+                Listener conflicts:
+                \tPort 8080 is bound by more than one listener: myorg/svc5:svc5Listener (http:Listener), \
+                myorg/svc6 (http:Listener)
+                \tBase path '/health' is attached more than once to the default http listener on port 9090, \
+                by myorg/svc5, myorg/svc6
+                """), "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("2 listener conflicts."), "Actual output:" + buildLog);
+    }
+}
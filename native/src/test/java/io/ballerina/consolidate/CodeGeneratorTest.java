@@ -18,6 +18,7 @@
 package io.ballerina.consolidate;
 
 import io.ballerina.projects.PackageManifest;
+import io.ballerina.projects.TomlDocument;
 import io.ballerina.projects.buildtools.ToolContext;
 import io.ballerina.projects.directory.BuildProject;
 import org.testng.Assert;
@@ -27,6 +28,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class CodeGeneratorTest {
 
@@ -43,11 +50,25 @@ public class CodeGeneratorTest {
         Path generatedMainBalPath = project.sourceRoot().resolve("generated/consolidator_main.bal");
         Assert.assertTrue(Files.exists(generatedMainBalPath));
         String consolidatorMainBal = """
+                import ballerina/jballerina.java;
                 import ballerina/log;
-                
+
+                final readonly & string[] consolidatedServices = ["myOrg/svc1", "myOrg/svc2", "myOrg/svc3"];
+
                 public function main() {
-                    log:printInfo("Started all services");
+                    int timeToMainMillis = getUptimeMillis(getRuntimeMXBean());
+                    log:printInfo("Initialized all services", services = consolidatedServices.length(),
+                            timeToMainMillis = timeToMainMillis);
                 }
+
+                isolated function getRuntimeMXBean() returns handle = @java:Method {
+                    'class: "java.lang.management.ManagementFactory"
+                } external;
+
+                isolated function getUptimeMillis(handle runtimeMXBean) returns int = @java:Method {
+                    'class: "java.lang.management.RuntimeMXBean",
+                    name: "getUptime"
+                } external;
                 """;
         Assert.assertEquals(Files.readString(generatedMainBalPath), consolidatorMainBal);
 
@@ -61,4 +82,293 @@ public class CodeGeneratorTest {
                 """;
         Assert.assertEquals(Files.readString(generatedImportsBal), consolidatorBal);
     }
+
+    @Test(dependsOnMethods = "testValidToolUsage")
+    public void testRegenerationWithUnchangedOptions() throws IOException {
+        BuildProject project = BuildProject.load(Paths.get("build/test-consolidate"));
+        PackageManifest.Tool tool = project.currentPackage().manifest().tools().getFirst();
+        ToolContext toolContext = ToolContext.from(tool, project.currentPackage(), System.out);
+        Path generatedMainBalPath = project.sourceRoot().resolve("generated/consolidator_main.bal");
+        Path generatedImportsBal = project.sourceRoot().resolve("generated/consolidator.bal");
+        FileTime mainBalModifiedTime = Files.getLastModifiedTime(generatedMainBalPath);
+        FileTime importsBalModifiedTime = Files.getLastModifiedTime(generatedImportsBal);
+
+        new CodeGenerator().execute(toolContext);
+
+        // The sources must not be rewritten when the options have not changed
+        Assert.assertEquals(Files.getLastModifiedTime(generatedMainBalPath), mainBalModifiedTime);
+        Assert.assertEquals(Files.getLastModifiedTime(generatedImportsBal), importsBalModifiedTime);
+    }
+
+    @Test
+    public void testServicesInCanonicalOrder() {
+        Map<String, String> sources = CodeGenerator.generateSources(
+                getOptions("options.services = [\"myOrg/svc3\", \"myOrg/svc1\", \"myOrg/svc2\"]"));
+        Assert.assertEquals(sources.get(CodeGenerator.CONSOLIDATOR_BAL), """
+                import myOrg/svc1 as _;
+                import myOrg/svc2 as _;
+                import myOrg/svc3 as _;
+                """);
+        Assert.assertEquals(CodeGenerator.fingerprint(sources), CodeGenerator.fingerprint(CodeGenerator.generateSources(
+                getOptions("options.services = [\"myOrg/svc2\", \"myOrg/svc3\", \"myOrg/svc1\"]"))));
+        Assert.assertFalse(sources.containsKey(CodeGenerator.CONFIG_TOML));
+    }
+
+    @Test
+    public void testSharedListeners() {
+        Map<String, String> sources = CodeGenerator.generateSources(getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                options.sharedListeners = true
+                options.sharedListenerPort = 9191
+                """));
+        Assert.assertTrue(sources.get(CodeGenerator.CONFIG_TOML).contains("""
+                [ballerina.http]
+                defaultListenerPort = 9191
+                """), sources.get(CodeGenerator.CONFIG_TOML));
+    }
+
+    @Test
+    public void testSharedListenersWithoutPort() {
+        Assert.assertEquals(getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                options.sharedListeners = true
+                """).validate(), List.of("'sharedListenerPort' is required with 'sharedListeners', as the default "
+                + "listener is already shared on port 9090"));
+    }
+
+    @Test
+    public void testGracefulStopTimeout() {
+        Map<String, String> sources = CodeGenerator.generateSources(getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                options.gracefulStopTimeout = 30
+                """));
+        String config = sources.get(CodeGenerator.CONFIG_TOML);
+        Assert.assertTrue(config.endsWith("""
+                [ballerina.http.defaultListenerConfig]
+                gracefulStopTimeout = 30
+                """), config);
+        Assert.assertFalse(config.contains("defaultListenerPort"), config);
+    }
+
+    @Test
+    public void testHealthListener() {
+        ConsolidatorOptions options = getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                options.health.port = 9099
+                """);
+        Assert.assertTrue(options.validate().isEmpty());
+        String mainBal = CodeGenerator.generateSources(options).get(CodeGenerator.CONSOLIDATOR_MAIN_BAL);
+        Assert.assertTrue(mainBal.contains("import ballerina/http;\n"), mainBal);
+        Assert.assertTrue(mainBal.contains("final readonly & http:Ok upResponse = {body: {status: \"UP\"}};\n"),
+                mainBal);
+        Assert.assertTrue(mainBal.contains("listener http:Listener healthListener = new (9099);\n"), mainBal);
+        Assert.assertTrue(mainBal.contains("""
+                isolated service "/health" on healthListener {
+                    isolated resource function get live() returns http:Ok {
+                        return upResponse;
+                    }
+
+                    isolated resource function get ready() returns http:Ok {
+                        return upResponse;
+                    }
+                }
+                """), mainBal);
+    }
+
+    @Test
+    public void testInvalidHealthListener() {
+        Assert.assertEquals(getOptions("""
+                options.services = ["myOrg/svc1"]
+                options.health.path = "/status"
+                """).validate(), List.of("'health.port' is required to enable the health listener"));
+        Assert.assertEquals(getOptions("""
+                options.services = ["myOrg/svc1"]
+                options.sharedListeners = true
+                options.sharedListenerPort = 9191
+                options.health.port = 9191
+                """).validate(), List.of("'health.port' should not be the same as the 'sharedListenerPort'"));
+    }
+
+    @Test
+    public void testObservability() {
+        ConsolidatorOptions options = getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                options.observability.metricsReporter = "prometheus"
+                options.observability.tracingProvider = "jaeger"
+                options.observability.samplingRate = 0.05
+                """);
+        Assert.assertTrue(options.validate().isEmpty());
+        Map<String, String> sources = CodeGenerator.generateSources(options);
+        Assert.assertTrue(sources.get(CodeGenerator.CONFIG_TOML).endsWith("""
+                [ballerina.observe]
+                metricsEnabled = true
+                metricsReporter = "prometheus"
+                tracingEnabled = true
+                tracingProvider = "jaeger"
+
+                [ballerinax.jaeger]
+                samplerType = "probabilistic"
+                samplerParam = 0.05
+                """), sources.get(CodeGenerator.CONFIG_TOML));
+        Assert.assertTrue(sources.get(CodeGenerator.CONSOLIDATOR_MAIN_BAL).startsWith("""
+                import ballerina/jballerina.java;
+                import ballerina/log;
+                import ballerinax/jaeger as _;
+                import ballerinax/prometheus as _;
+                """), sources.get(CodeGenerator.CONSOLIDATOR_MAIN_BAL));
+    }
+
+    @Test
+    public void testInvalidObservability() {
+        Assert.assertEquals(getOptions("""
+                options.services = ["myOrg/svc1"]
+                options.observability.metricsReporter = "prometheus"
+                options.observability.samplingRate = 1
+                """).validate(), List.of("'observability.samplingRate' requires 'observability.tracingProvider' to be "
+                + "one of jaeger, zipkin"));
+    }
+
+    @Test
+    public void testStartupReport() {
+        Map<String, String> sources = CodeGenerator.generateSources(getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                options.startupReport = "reports/startup.json"
+                """));
+        String mainBal = sources.get(CodeGenerator.CONSOLIDATOR_MAIN_BAL);
+        Assert.assertTrue(mainBal.contains("import ballerina/io;\n"), mainBal);
+        Assert.assertTrue(mainBal.contains("io:fileWriteJson(\"reports/startup.json\", startupReport)"), mainBal);
+    }
+
+    @Test
+    public void testPinnedServices() {
+        ConsolidatorOptions options = getOptions("""
+                options.services = ["myOrg/db:1.2.3", "myOrg/svc1", "myOrg/svc2:2.0.0"]
+                """);
+        Assert.assertTrue(options.validate().isEmpty());
+        Map<String, String> sources = CodeGenerator.generateSources(options);
+        Assert.assertEquals(sources.get(CodeGenerator.CONSOLIDATOR_BAL), """
+                import myOrg/db as _;
+                import myOrg/svc1 as _;
+                import myOrg/svc2 as _;
+                """);
+        Assert.assertTrue(sources.get(CodeGenerator.CONSOLIDATOR_MAIN_BAL).contains(
+                "[\"myOrg/db:1.2.3\", \"myOrg/svc1\", \"myOrg/svc2:2.0.0\"]"));
+    }
+
+    @Test
+    public void testPinWarnings() throws IOException {
+        Path packageRoot = Files.createTempDirectory("consolidator");
+        Files.writeString(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML), """
+                [[package]]
+                org = "myOrg"
+                name = "svc1"
+                version = "1.0.0"
+
+                [[package]]
+                org = "myOrg"
+                name = "svc2"
+                version = "2.1.0"
+                """);
+        Assert.assertEquals(CodeGenerator.getPinWarnings(
+                List.of("myOrg/svc1:1.0.0", "myOrg/svc2:2.0.0", "myOrg/svc3:1.0.0", "myOrg/svc4"),
+                Set.of("myOrg/svc1:1.0.0", "myOrg/svc2:2.0.0"), DependencyLock.read(packageRoot)), List.of(
+                "service 'myOrg/svc2:2.0.0' is locked to version 2.1.0 in the Dependencies.toml. Add the service again "
+                        + "to lock the pinned version, and build with '--sticky' to keep it",
+                "service 'myOrg/svc3:1.0.0' is pinned to a version without a [[dependency]] entry for it in the "
+                        + "Ballerina.toml"));
+    }
+
+    @Test
+    public void testDuplicatePinnedServices() {
+        ConsolidatorOptions options = getOptions("""
+                options.services = ["myOrg/svc1:1.0.0", "myOrg/svc1:1.1.0"]
+                """);
+        Assert.assertEquals(options.validate(), List.of("service 'myOrg/svc1' is listed more than once in 'services'"));
+    }
+
+    @Test
+    public void testRuntimeTuning() {
+        ConsolidatorOptions options = getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                options.runtime.parallelism = 4
+                options.runtime.maxPoolSize = 512
+                options.runtime.initialHeapSizeMb = 512
+                options.runtime.maxHeapSizeMb = 1024
+                """);
+        Assert.assertTrue(options.validate().isEmpty());
+        Assert.assertEquals(CodeGenerator.generateSources(options).get(CodeGenerator.JVM_ARGS), """
+                -Xms512m
+                -Xmx1024m
+                -Djdk.virtualThreadScheduler.parallelism=4
+                -Djdk.virtualThreadScheduler.maxPoolSize=512
+                """);
+    }
+
+    @Test
+    public void testRuntimeTuningDefaults() {
+        Assert.assertFalse(CodeGenerator.generateSources(getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2"]
+                """)).containsKey(CodeGenerator.JVM_ARGS));
+
+        String services = IntStream.range(0, 20).mapToObj(i -> "\"myOrg/svc" + i + "\"")
+                .collect(Collectors.joining(", "));
+        // The heap is left to the JVM however many services there are, unless configured.
+        ConsolidatorOptions options = getOptions("options.services = [" + services + "]\n"
+                + "options.runtime.maxPoolSize = 512\n"
+                + "options.runtime.initialHeapSizeMb = 4096\n");
+        Assert.assertTrue(options.validate().isEmpty());
+        Assert.assertEquals(CodeGenerator.generateSources(options).get(CodeGenerator.JVM_ARGS), """
+                -Xms4096m
+                -Djdk.virtualThreadScheduler.maxPoolSize=512
+                """);
+    }
+
+    @Test
+    public void testInvalidRuntimeTuning() {
+        ConsolidatorOptions options = getOptions("""
+                options.services = ["myOrg/svc1"]
+                options.runtime.initialHeapSizeMb = 1024
+                options.runtime.maxHeapSizeMb = 512
+                options.runtime.parallelism = 16
+                options.runtime.maxPoolSize = 8
+                """);
+        Assert.assertEquals(options.validate(),
+                List.of("'runtime.initialHeapSizeMb' should not be greater than 'runtime.maxHeapSizeMb'",
+                        "'runtime.parallelism' should not be greater than 'runtime.maxPoolSize'"));
+    }
+
+    @Test
+    public void testListenerConflicts() throws IOException {
+        Path ballerinaHome = Files.createTempDirectory("ballerina-home");
+        TestUtil.createBalaWithSource(ballerinaHome, "myOrg", "svc1", "1.0.0", "java21", """
+                import ballerina/http;
+
+                service /api on http:getDefaultListener() {
+                }
+                """);
+        TestUtil.createBalaWithSource(ballerinaHome, "myOrg", "svc2", "1.0.0", "java21", """
+                import ballerina/http;
+
+                listener http:Listener adminListener = new (9095);
+
+                service /api on http:getDefaultListener() {
+                }
+                """);
+        ConsolidatorOptions options = getOptions("""
+                options.services = ["myOrg/svc1", "myOrg/svc2", "myOrg/svc3"]
+                options.sharedListeners = true
+                options.sharedListenerPort = 9095
+                """);
+        ListenerTopology topology = CodeGenerator.getListenerTopology(options, new BalaRepository(ballerinaHome));
+        Assert.assertEquals(topology.portConflicts(), List.of("Port 9095 is bound by more than one listener: "
+                + "myOrg/svc2:adminListener (http:Listener), the default http listener"));
+        Assert.assertEquals(topology.basePathConflicts(), List.of("Base path '/api' is attached more than once to "
+                + "the default http listener on port 9095, by myOrg/svc1, myOrg/svc2"));
+    }
+
+    static ConsolidatorOptions getOptions(String options) {
+        String balToml = "[[tool.consolidate-packages]]\nid = \"consolidate1\"\n" + options;
+        TomlDocument tomlDocument = TomlDocument.from(Util.BALLERINA_TOML, balToml);
+        return ConsolidatorOptions.from(Util.getToolOptions(tomlDocument.toml().rootNode()).orElseThrow());
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.ballerina.consolidate.TestUtil.createBala;
+
+public class DependencyLockTest {
+
+    private Path ballerinaHome;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        ballerinaHome = Files.createTempDirectory("ballerina-home");
+        createBala(ballerinaHome, "myorg", "svc1", "1.0.0", "any", """
+                {
+                  "packages": [
+                    {"org": "ballerina", "name": "http", "version": "2.10.0", "transitive": false,
+                     "dependencies": [{"org": "ballerina", "name": "log", "version": "2.9.0"}]},
+                    {"org": "ballerina", "name": "log", "version": "2.9.0", "transitive": true}
+                  ],
+                  "modules": [
+                    {"org": "myorg", "package_name": "svc1", "version": "1.0.0", "module_name": "svc1",
+                     "dependencies": [
+                       {"org": "ballerina", "package_name": "http", "version": "2.10.0", "module_name": "http"}
+                     ]}
+                  ]
+                }
+                """);
+        createBala(ballerinaHome, "myorg", "svc2", "1.0.0", "any", """
+                {
+                  "packages": [
+                    {"org": "ballerina", "name": "http", "version": "2.12.1", "transitive": false},
+                    {"org": "myorg", "name": "svc1", "version": "1.1.0", "transitive": false}
+                  ]
+                }
+                """);
+        createBala(ballerinaHome, "myorg", "svc1", "1.1.0", "any", "{}");
+        createBala(ballerinaHome, "myorg", "svc3", "1.0.0", "any", """
+                {
+                  "packages": [
+                    {"org": "ballerina", "name": "http", "version": "3.0.0", "transitive": false}
+                  ]
+                }
+                """);
+    }
+
+    @Test
+    public void testMerge() throws IOException {
+        Path packageRoot = Files.createTempDirectory("consolidator");
+        DependencyLock lock = DependencyLock.read(packageRoot);
+        Assert.assertEquals(lock.merge(List.of("myorg/svc2", "myorg/svc4"), new BalaRepository(ballerinaHome)),
+                List.of("myorg/svc4"));
+        lock.write(packageRoot);
+
+        DependencyLock written = DependencyLock.read(packageRoot);
+        Assert.assertEquals(written.size(), 3);
+        Assert.assertEquals(written.getVersion("ballerina/http"), Optional.of("2.12.1"));
+        Assert.assertEquals(written.getVersion("myorg/svc1"), Optional.of("1.1.0"));
+        Assert.assertEquals(written.getVersion("myorg/svc2"), Optional.of("1.0.0"));
+        String content = Files.readString(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML));
+        Assert.assertTrue(content.contains("""
+                [[package]]
+                org = "myorg"
+                name = "svc2"
+                version = "1.0.0"
+                dependencies = [
+                \t{org = "ballerina", name = "http"},
+                \t{org = "myorg", name = "svc1"}
+                ]
+                """), content);
+    }
+
+    @Test
+    public void testMergeWithPinnedService() throws IOException {
+        Path packageRoot = Files.createTempDirectory("consolidator");
+        Files.writeString(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML), """
+                [ballerina]
+                dependencies-toml-version = "2"
+                distribution-version = "2201.10.0"
+
+                [[package]]
+                org = "ballerina"
+                name = "log"
+                version = "2.10.0"
+                """);
+        DependencyLock lock = DependencyLock.read(packageRoot);
+        Assert.assertTrue(lock.merge(List.of("myorg/svc1:1.0.0", "myorg/svc2"), new BalaRepository(ballerinaHome))
+                .isEmpty());
+        lock.write(packageRoot);
+
+        // The higher locked version of log is kept, and svc1 stays at the pinned version.
+        DependencyLock written = DependencyLock.read(packageRoot);
+        Assert.assertEquals(written.getVersion("ballerina/log"), Optional.of("2.10.0"));
+        Assert.assertEquals(written.getVersion("ballerina/http"), Optional.of("2.12.1"));
+        Assert.assertEquals(written.getVersion("myorg/svc1"), Optional.of("1.0.0"));
+        String content = Files.readString(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML));
+        Assert.assertTrue(content.contains("distribution-version = \"2201.10.0\"\n"), content);
+        Assert.assertTrue(content.contains("""
+                modules = [
+                \t{org = "myorg", packageName = "svc1", moduleName = "svc1"}
+                ]
+                """), content);
+    }
+
+    @Test
+    public void testMergeWithIncompatibleVersions() throws IOException {
+        Path packageRoot = Files.createTempDirectory("consolidator");
+        DependencyLock lock = DependencyLock.read(packageRoot);
+        Assert.assertTrue(lock.merge(List.of("myorg/svc1:1.0.0", "myorg/svc3"), new BalaRepository(ballerinaHome))
+                .isEmpty());
+        lock.write(packageRoot);
+
+        // http is left for the build to resolve, as svc1 and svc3 depend on different major versions of it.
+        Assert.assertEquals(lock.getConflicts(), Set.of("ballerina/http"));
+        DependencyLock written = DependencyLock.read(packageRoot);
+        Assert.assertEquals(written.getVersion("ballerina/http"), Optional.empty());
+        Assert.assertEquals(written.getVersion("ballerina/log"), Optional.of("2.9.0"));
+        String content = Files.readString(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML));
+        Assert.assertFalse(content.contains("packageName = \"http\""), content);
+    }
+
+    @Test
+    public void testRemerge() throws IOException {
+        Path packageRoot = Files.createTempDirectory("consolidator");
+        Files.writeString(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML), """
+                [ballerina]
+                dependencies-toml-version = "2"
+                distribution-version = "2201.10.0"
+                """);
+        BalaRepository repository = new BalaRepository(ballerinaHome);
+        DependencyLock lock = DependencyLock.read(packageRoot);
+        lock.merge(List.of("myorg/svc1:1.0.0", "myorg/svc2"), repository);
+        lock.write(packageRoot);
+
+        DependencyLock remerged = DependencyLock.read(packageRoot);
+        remerged.clear();
+        remerged.merge(List.of("myorg/svc1:1.0.0"), repository);
+        remerged.write(packageRoot);
+
+        // The versions locked only for svc2 are dropped with it.
+        DependencyLock written = DependencyLock.read(packageRoot);
+        Assert.assertEquals(written.size(), 3);
+        Assert.assertEquals(written.getVersion("ballerina/http"), Optional.of("2.10.0"));
+        Assert.assertEquals(written.getVersion("myorg/svc2"), Optional.empty());
+        Assert.assertTrue(Files.readString(packageRoot.resolve(DependencyLock.DEPENDENCIES_TOML))
+                .contains("distribution-version = \"2201.10.0\"\n"));
+    }
+}
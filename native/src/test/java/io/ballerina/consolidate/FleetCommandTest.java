@@ -0,0 +1,124 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+
+import static io.ballerina.consolidate.TestUtil.getOutput;
+import static io.ballerina.consolidate.TestUtil.readOutput;
+import static io.ballerina.consolidate.TestUtil.testResources;
+
+public class FleetCommandTest {
+
+    private final Path fleetPath = Paths.get("build/consolidatorFleetTest").toAbsolutePath();
+    private ByteArrayOutputStream console;
+    private PrintStream printStream;
+
+    @BeforeClass
+    public void setup() {
+        String services = "myorg/service1,myorg/service2,myorg/service3";
+        NewSubCommand newSubCommand = new NewSubCommand(System.out, fleetPath.resolve("groupB").toString(),
+                services, false);
+        newSubCommand.execute();
+    }
+
+    @BeforeMethod
+    public void clearConsoleLog() {
+        this.console = new ByteArrayOutputStream();
+        this.printStream = new PrintStream(this.console);
+    }
+
+    @Test
+    public void testHelp() throws IOException {
+        FleetSubCommand fleetSubCommand = new FleetSubCommand(printStream);
+        fleetSubCommand.execute();
+        String buildLog = readOutput(console);
+        String expected = getOutput(testResources.resolve("command-outputs"), "help-fleet.txt");
+        Assert.assertTrue(buildLog.contains(expected), "Help text mismatched");
+    }
+
+    @Test
+    public void testApply() throws IOException {
+        Path specPath = fleetPath.resolve("fleet.toml");
+        Files.writeString(specPath, """
+                [[package]]
+                path = "groupA"
+                services = ["myorg/service1", "myorg/service2"]
+
+                [[package]]
+                path = "groupB"
+                add = ["myorg/service4"]
+                remove = ["myorg/service1"]
+                """);
+        FleetSubCommand fleetSubCommand = new FleetSubCommand(printStream, "apply", specPath.toString(), false);
+        fleetSubCommand.execute();
+        String buildLog = readOutput(console);
+        Assert.assertTrue(buildLog.contains("Successfully applied the fleet spec"), "Actual output:" + buildLog);
+        Assert.assertEquals(Util.readServices(fleetPath.resolve("groupA")).orElseThrow(),
+                Set.of("myorg/service1", "myorg/service2"));
+        Assert.assertEquals(Util.readServices(fleetPath.resolve("groupB")).orElseThrow(),
+                Set.of("myorg/service2", "myorg/service3", "myorg/service4"));
+    }
+
+    @Test
+    public void testApplyFromStdin() throws IOException {
+        // Package paths in a spec read from the standard input are relative to the current directory
+        String spec = """
+                [[package]]
+                path = '%s'
+                services = ["myorg/service1"]
+                add = ["myorg/service5"]
+                """.formatted(fleetPath.resolve("groupD").toAbsolutePath());
+        FleetSubCommand fleetSubCommand = new FleetSubCommand(printStream, "apply", FleetSubCommand.STDIN,
+                new ByteArrayInputStream(spec.getBytes(StandardCharsets.UTF_8)), false);
+        fleetSubCommand.execute();
+        String buildLog = readOutput(console);
+        Assert.assertTrue(buildLog.contains("Successfully applied the fleet spec"), "Actual output:" + buildLog);
+        Assert.assertEquals(Util.readServices(fleetPath.resolve("groupD")).orElseThrow(),
+                Set.of("myorg/service1", "myorg/service5"));
+    }
+
+    @Test
+    public void testApplyWithInvalidSvcValues() throws IOException {
+        Path specPath = fleetPath.resolve("invalid-fleet.toml");
+        Files.writeString(specPath, """
+                [[package]]
+                path = "groupC"
+                services = ["service1", "service2"]
+                """);
+        FleetSubCommand fleetSubCommand = new FleetSubCommand(printStream, "apply", specPath.toString(), false);
+        fleetSubCommand.execute();
+        String buildLog = readOutput(console);
+        String expected = getOutput(testResources.resolve("command-outputs"), "invalid-svc.txt");
+        Assert.assertTrue(buildLog.contains(expected), "Actual output:" + buildLog);
+        Assert.assertFalse(Files.exists(fleetPath.resolve("groupC")));
+    }
+}
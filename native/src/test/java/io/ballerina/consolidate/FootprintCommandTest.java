@@ -0,0 +1,132 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static io.ballerina.consolidate.TestUtil.createBala;
+import static io.ballerina.consolidate.TestUtil.getOutput;
+import static io.ballerina.consolidate.TestUtil.readOutput;
+import static io.ballerina.consolidate.TestUtil.testResources;
+
+public class FootprintCommandTest {
+
+    private final Path ballerinaHome = Paths.get("build/consolidatorFootprintTest/.ballerina").toAbsolutePath();
+    private ByteArrayOutputStream console;
+    private PrintStream printStream;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Path repository = ballerinaHome.resolve("repositories").resolve(BalaRepository.CENTRAL_REPOSITORY);
+        createBala(ballerinaHome, "myorg", "svc1", "1.0.0", "java21", """
+                {"packages": [
+                  {"org": "ballerina", "name": "log", "version": "2.10.0"},
+                  {"org": "ballerinax", "name": "kafka", "version": "4.0.0"}
+                ]}
+                """);
+        createBala(ballerinaHome, "myorg", "svc2", "1.0.0", "java21", """
+                {"packages": [
+                  {"org": "ballerina", "name": "log", "version": "2.10.0"}
+                ]}
+                """);
+
+        Path cache = repository.resolve("cache-2201.12.0");
+        createJar(cache.resolve("myorg/svc1/1.0.0/java21/myorg-svc1-1.0.0.jar"), 10);
+        createJar(cache.resolve("myorg/svc2/1.0.0/java21/myorg-svc2-1.0.0.jar"), 20);
+        createJar(cache.resolve("ballerina/log/2.10.0/java21/ballerina-log-2.10.0.jar"), 30);
+        createJar(cache.resolve("ballerinax/kafka/4.0.0/java21/ballerinax-kafka-4.0.0.jar"), 40);
+        createJar(repository.resolve("bala/ballerinax/kafka/4.0.0/java21/platform/java21/kafka-clients.jar"), 50);
+    }
+
+    private static void createJar(Path jarPath, int classCount) throws IOException {
+        Files.createDirectories(jarPath.getParent());
+        try (OutputStream outputStream = Files.newOutputStream(jarPath);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            for (int i = 0; i < classCount; i++) {
+                zipOutputStream.putNextEntry(new ZipEntry("pkg/Class" + i + ".class"));
+                zipOutputStream.write(new byte[64]);
+                zipOutputStream.closeEntry();
+            }
+        }
+    }
+
+    @BeforeMethod
+    public void clearConsoleLog() {
+        this.console = new ByteArrayOutputStream();
+        this.printStream = new PrintStream(this.console);
+    }
+
+    @Test
+    public void testHelp() throws IOException {
+        FootprintSubCommand footprintSubCommand = new FootprintSubCommand(printStream);
+        footprintSubCommand.execute();
+        String buildLog = readOutput(console);
+        String expected = getOutput(testResources.resolve("command-outputs"), "help-footprint.txt");
+        Assert.assertTrue(buildLog.contains(expected), "Help text mismatched");
+    }
+
+    @Test
+    public void testFootprint() throws IOException {
+        FootprintSubCommand footprintSubCommand = new FootprintSubCommand(printStream,
+                "myorg/svc2,myorg/svc1,myorg/svc3", ballerinaHome, false);
+        footprintSubCommand.execute();
+        String buildLog = readOutput(console).replace("\r", "");
+        String[] lines = buildLog.split("\n");
+        int svc1Row = -1;
+        int svc2Row = -1;
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].startsWith("\tmyorg/svc1 ")) {
+                svc1Row = i;
+                // svc1 and its two dependencies, and kafka and its platform library that only svc1 depends on
+                Assert.assertTrue(lines[i].matches("\tmyorg/svc1\\s.*\\s130\\s+1\\s.*\\s100"), lines[i]);
+            } else if (lines[i].startsWith("\tmyorg/svc2 ")) {
+                svc2Row = i;
+                Assert.assertTrue(lines[i].matches("\tmyorg/svc2\\s.*\\s50\\s+0\\s.*\\s20"), lines[i]);
+            }
+        }
+        Assert.assertTrue(svc1Row != -1 && svc1Row < svc2Row, "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("(150 classes), against"), "Actual output:" + buildLog);
+        Assert.assertTrue(buildLog.contains("include them in the estimate:\n\tmyorg/svc3\n"),
+                "Actual output:" + buildLog);
+    }
+
+    @Test
+    public void testFootprintWithPinnedService() throws IOException {
+        FootprintSubCommand footprintSubCommand = new FootprintSubCommand(printStream, "myorg/svc2,myorg/svc1:1.0.0",
+                ballerinaHome, false);
+        footprintSubCommand.execute();
+        String buildLog = readOutput(console).replace("\r", "");
+        // The pinned service is not counted as a dependency of its own.
+        Assert.assertTrue(Arrays.stream(buildLog.split("\n")).anyMatch(
+                line -> line.matches("\tmyorg/svc1:1.0.0\\s.*\\s130\\s+1\\s.*\\s100")), "Actual output:" + buildLog);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class ListenerTopologyTest {
+
+    @Test
+    public void testScan() {
+        List<ListenerScanner.Listener> listeners = ListenerScanner.scan(List.of("""
+                import ballerina/http;
+
+                service /orders on ordersListener, adminListener {
+                }
+
+                service "/orders/v2" on check new http:Listener(8081) {
+                }
+
+                service on http:getDefaultListener() {
+                }
+                """, """
+                import ballerina/http;
+
+                listener http:Listener ordersListener = check new (8080);
+                listener adminListener = http:getDefaultListener();
+                """));
+        Assert.assertEquals(listeners, List.of(
+                new ListenerScanner.Listener("ordersListener", "http:Listener", Optional.of(8080), false,
+                        List.of("/orders")),
+                new ListenerScanner.Listener("adminListener", "", Optional.empty(), true, List.of("/orders")),
+                new ListenerScanner.Listener("", "http:Listener", Optional.of(8081), false, List.of("/orders/v2")),
+                new ListenerScanner.Listener("", "", Optional.empty(), true, List.of("/"))));
+    }
+
+    @Test
+    public void testConflicts() {
+        ListenerTopology topology = ListenerTopology.of(Map.of(
+                "myorg/orders", List.of(
+                        new ListenerScanner.Listener("ordersListener", "http:Listener", Optional.of(8080), false,
+                                List.of("/orders")),
+                        new ListenerScanner.Listener("", "", Optional.empty(), true, List.of("/health"))),
+                "myorg/payments", List.of(
+                        new ListenerScanner.Listener("", "http:Listener", Optional.of(8080), false,
+                                List.of("/payments")),
+                        new ListenerScanner.Listener("", "", Optional.empty(), true, List.of("/health"))),
+                "myorg/billing", List.of(
+                        new ListenerScanner.Listener("", "kafka:Listener", Optional.empty(), false, List.of("/")))),
+                9090);
+        Assert.assertEquals(topology.format(), """
+                \t8080: myorg/orders:ordersListener (http:Listener)
+                \t\t/orders (myorg/orders)
+                \t8080: myorg/payments (http:Listener)
+                \t\t/payments (myorg/payments)
+                \t9090: the default http listener
+                \t\t/health (myorg/orders, myorg/payments)
+                \tunknown port: myorg/billing (kafka:Listener)
+                \t\t/ (myorg/billing)
+                """);
+        Assert.assertEquals(topology.portConflicts(), List.of("Port 8080 is bound by more than one listener: "
+                + "myorg/orders:ordersListener (http:Listener), myorg/payments (http:Listener)"));
+        Assert.assertEquals(topology.basePathConflicts(), List.of("Base path '/health' is attached more than once "
+                + "to the default http listener on port 9090, by myorg/orders, myorg/payments"));
+    }
+
+    @Test
+    public void testNoConflicts() {
+        ListenerTopology topology = ListenerTopology.of(Map.of(
+                "myorg/orders", List.of(
+                        new ListenerScanner.Listener("", "", Optional.empty(), true, List.of("/orders"))),
+                "myorg/payments", List.of(
+                        new ListenerScanner.Listener("", "", Optional.empty(), true, List.of("/payments")),
+                        new ListenerScanner.Listener("", "http:Listener", Optional.of(9091), false,
+                                List.of("/payments")))),
+                9090);
+        Assert.assertTrue(topology.portConflicts().isEmpty());
+        Assert.assertTrue(topology.basePathConflicts().isEmpty());
+    }
+}
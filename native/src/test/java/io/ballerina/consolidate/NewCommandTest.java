@@ -24,7 +24,11 @@ import org.testng.annotations.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
 
+import static io.ballerina.consolidate.TestUtil.createBala;
 import static io.ballerina.consolidate.TestUtil.getOutput;
 import static io.ballerina.consolidate.TestUtil.readOutput;
 import static io.ballerina.consolidate.TestUtil.testResources;
@@ -61,6 +65,53 @@ public class NewCommandTest {
 //        balBuildAfter(projectPath);
     }
 
+    @Test
+    public void testCreateWithPinnedService() throws IOException {
+        Path ballerinaHome = BalaRepository.getBallerinaHome();
+        createBala(ballerinaHome, "locktest", "svc1", "1.0.0", "any", """
+                {
+                  "packages": [
+                    {"org": "ballerina", "name": "http", "version": "2.10.0", "transitive": false}
+                  ],
+                  "modules": [
+                    {"org": "locktest", "package_name": "svc1", "version": "1.0.0", "module_name": "svc1"}
+                  ]
+                }
+                """);
+        createBala(ballerinaHome, "locktest", "svc1", "1.1.0", "any", "{}");
+        createBala(ballerinaHome, "locktest", "svc2", "1.0.0", "any", """
+                {
+                  "packages": [
+                    {"org": "locktest", "name": "svc1", "version": "1.1.0", "transitive": false}
+                  ]
+                }
+                """);
+        Path packagePath = Files.createTempDirectory("consolidator").resolve("pinned");
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        new NewSubCommand(new PrintStream(console), packagePath.toString(), "locktest/svc1:1.0.0,locktest/svc2",
+                false).execute();
+        String buildLog = readOutput(console);
+
+        // The services given to the command are not changed by locking their dependencies.
+        Assert.assertEquals(Util.readServices(packagePath).orElseThrow(),
+                Set.of("locktest/svc1:1.0.0", "locktest/svc2"));
+        Assert.assertTrue(buildLog.contains("Locked the versions of 3 packages in the Dependencies.toml, from the "
+                + "dependencies of 2 services in the local repositories."), buildLog);
+        String dependenciesToml = Files.readString(packagePath.resolve(DependencyLock.DEPENDENCIES_TOML));
+        Assert.assertTrue(dependenciesToml.contains("""
+                [[package]]
+                org = "locktest"
+                name = "svc1"
+                version = "1.0.0"
+                dependencies = [
+                \t{org = "ballerina", name = "http"}
+                ]
+                modules = [
+                \t{org = "locktest", packageName = "svc1", moduleName = "svc1"}
+                ]
+                """), dependenciesToml);
+    }
+
     @Test
     public void testCreateWithInvalidSvcValues() throws IOException {
         String services = "service1,service2";
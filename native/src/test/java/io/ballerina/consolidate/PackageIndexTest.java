@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.ballerina.consolidate.TestUtil.createBala;
+
+public class PackageIndexTest {
+
+    @Test
+    public void testIndex() throws IOException {
+        Path ballerinaHome = Files.createTempDirectory("ballerina-home");
+        createBala(ballerinaHome, "myorg", "orders", "1.0.0", "any", "{}");
+        createBala(ballerinaHome, "myorg", "payments", "0.2.0", "any", "{}");
+        createBala(ballerinaHome, "myorg", "payments", "0.1.0", "any", "{}");
+
+        PackageIndex index = PackageIndex.load(ballerinaHome);
+        Assert.assertTrue(Files.isRegularFile(ballerinaHome.resolve(PackageIndex.INDEX_FILE)));
+        PackageIndex.Entry orders = index.get("myorg/orders").orElseThrow();
+        Assert.assertEquals(orders.versions(), List.of("1.0.0"));
+        PackageIndex.Entry payments = index.get("myorg/payments").orElseThrow();
+        Assert.assertEquals(payments.versions(), List.of("0.1.0", "0.2.0"));
+        Assert.assertEquals(index.match("myorg/*"), Set.of("myorg/orders", "myorg/payments"));
+        Assert.assertEquals(index.match("myorg/pay*"), Set.of("myorg/payments"));
+
+        // Only the package with a new version is re-indexed, and the other is read from the stored index.
+        createBala(ballerinaHome, "myorg", "orders", "1.1.0", "any", "{}");
+        Path ordersPath = ballerinaHome.resolve("repositories/central.ballerina.io/bala/myorg/orders");
+        Files.setLastModifiedTime(ordersPath, FileTime.fromMillis(orders.modifiedTime() + 1000));
+        PackageIndex refreshed = PackageIndex.load(ballerinaHome);
+        Assert.assertEquals(refreshed.get("myorg/orders").orElseThrow().versions(), List.of("1.0.0", "1.1.0"));
+        Assert.assertEquals(refreshed.get("myorg/payments").orElseThrow(), payments);
+    }
+
+    @Test
+    public void testInvalidIndex() throws IOException {
+        Path ballerinaHome = Files.createTempDirectory("ballerina-home");
+        createBala(ballerinaHome, "myorg", "svc1", "1.0.0", "any", "{}");
+        createBala(ballerinaHome, "myorg", "svc2", "1.0.0", "any", "{}");
+        long modifiedTime = Files.getLastModifiedTime(
+                ballerinaHome.resolve("repositories/central.ballerina.io/bala/myorg/svc1")).toMillis();
+        Files.writeString(ballerinaHome.resolve(PackageIndex.INDEX_FILE), """
+                {"version": 3, "packages": {
+                  "myorg/svc1": {"modifiedTime": %d, "versions": ["0.1.0"]},
+                  "myorg/svc2": {"modifiedTime": %d, "versions": [1]}
+                }}
+                """.formatted(modifiedTime, modifiedTime));
+
+        // The valid entry is read from the index, and the invalid one is re-indexed.
+        PackageIndex index = PackageIndex.load(ballerinaHome);
+        Assert.assertEquals(index.get("myorg/svc1").orElseThrow().versions(), List.of("0.1.0"));
+        Assert.assertEquals(index.get("myorg/svc2").orElseThrow().versions(), List.of("1.0.0"));
+
+        Files.writeString(ballerinaHome.resolve(PackageIndex.INDEX_FILE), "{\"version\": 3, \"packages\": [");
+        Assert.assertEquals(PackageIndex.load(ballerinaHome).get("myorg/svc1").orElseThrow().versions(),
+                List.of("1.0.0"));
+    }
+
+    @Test
+    public void testExpandServices() throws IOException {
+        Path ballerinaHome = Files.createTempDirectory("ballerina-home");
+        createBala(ballerinaHome, "myorg", "svc1", "1.0.0", "any", "{}");
+        createBala(ballerinaHome, "myorg", "svc2", "1.0.0", "any", "{}");
+        createBala(ballerinaHome, "otherorg", "svc3", "1.0.0", "any", "{}");
+        PackageIndex index = PackageIndex.load(ballerinaHome);
+
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(console);
+        Assert.assertEquals(Util.expandServices(new LinkedHashSet<>(List.of("otherorg/svc3", "myorg/*")), index,
+                printStream).orElseThrow(), new LinkedHashSet<>(List.of("otherorg/svc3", "myorg/svc1", "myorg/svc2")));
+        Assert.assertTrue(Util.expandServices(Set.of("neworg/*"), index, printStream).isEmpty());
+    }
+}
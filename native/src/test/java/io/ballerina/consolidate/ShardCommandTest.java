@@ -0,0 +1,161 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.ballerina.consolidate.TestUtil.getOutput;
+import static io.ballerina.consolidate.TestUtil.readOutput;
+import static io.ballerina.consolidate.TestUtil.USER_DIR;
+import static io.ballerina.consolidate.TestUtil.testResources;
+
+public class ShardCommandTest {
+
+    private static final String SERVICES = "myorg/svc1,myorg/svc2,myorg/svc3,myorg/svc4";
+    private ByteArrayOutputStream console;
+    private PrintStream printStream;
+
+    @BeforeMethod
+    public void clearConsoleLog() {
+        this.console = new ByteArrayOutputStream();
+        this.printStream = new PrintStream(this.console);
+    }
+
+    @Test
+    public void testHelp() throws IOException {
+        ShardSubCommand shardSubCommand = new ShardSubCommand(printStream);
+        shardSubCommand.execute();
+        String buildLog = readOutput(console);
+        String expected = getOutput(testResources.resolve("command-outputs"), "help-shard.txt");
+        Assert.assertTrue(buildLog.contains(expected), "Help text mismatched");
+    }
+
+    @Test
+    public void testShard() throws IOException {
+        Path workDir = Files.createTempDirectory("consolidator-shards");
+        Path costsPath = workDir.resolve("costs.csv");
+        Files.writeString(costsPath, """
+                service,cpu,memory,rps
+                myorg/svc1,4,1,100
+                myorg/svc2,3,1,100
+                "myorg/svc3",2,1,100
+                """);
+        ShardSubCommand shardSubCommand = new ShardSubCommand(printStream, SERVICES, 2, costsPath.toString(),
+                workDir.resolve("node").toString(), false);
+        shardSubCommand.execute();
+        String buildLog = readOutput(console);
+        Assert.assertTrue(buildLog.contains("""
+                The costs of the following services were not found. They are assumed to cost the average of the \
+                others:
+                \tmyorg/svc4
+                """), buildLog);
+        Assert.assertTrue(buildLog.contains("""
+                \tnode_1: 2 services, cpu 50.0%, memory 50.0%, rps 50.0%
+                \t\tmyorg/svc1
+                \t\tmyorg/svc3
+                """), buildLog);
+        Assert.assertTrue(buildLog.contains("Successfully created 2 consolidator packages."), buildLog);
+        Assert.assertEquals(Util.readServices(workDir.resolve("node_1")).orElseThrow(),
+                Set.of("myorg/svc1", "myorg/svc3"));
+        Assert.assertEquals(Util.readServices(workDir.resolve("node_2")).orElseThrow(),
+                Set.of("myorg/svc2", "myorg/svc4"));
+    }
+
+    @Test
+    public void testShardCurrentPackage() throws IOException {
+        Path packageRoot = Files.createDirectories(Files.createTempDirectory("consolidator-shards")
+                .resolve("node"));
+        Files.writeString(packageRoot.resolve(Util.BALLERINA_TOML), """
+                [package]
+                org = "myorg"
+                name = "node"
+                version = "0.1.0"
+
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc1", "myorg/svc2", "myorg/svc3"]
+                options.sharedListeners = true
+                options.sharedListenerPort = 8080
+                options.runtime.maxHeapSizeMb = 1024
+                """);
+        String userDir = System.getProperty(USER_DIR);
+        try {
+            System.setProperty(USER_DIR, packageRoot.toString());
+            new ShardSubCommand(printStream, null, 2, null, null, false).execute();
+        } finally {
+            System.setProperty(USER_DIR, userDir);
+        }
+        String buildLog = readOutput(console);
+        Assert.assertTrue(buildLog.contains("Successfully created 2 consolidator packages."), buildLog);
+
+        // The shards are created next to the package, with its options.
+        Path shardPath = packageRoot.resolveSibling("node_2");
+        Assert.assertEquals(Util.readServices(shardPath).orElseThrow(), Set.of("myorg/svc2"));
+        ConsolidatorOptions options = ConsolidatorOptions.from(Util.readToolOptions(shardPath).orElseThrow());
+        Assert.assertTrue(options.sharedListeners());
+        Assert.assertEquals(options.defaultListenerPort(), 8080);
+        Assert.assertEquals(options.runtime().orElseThrow().maxHeapSizeMb(), Optional.of(1024L));
+        Assert.assertFalse(Files.exists(packageRoot.resolve("node_1")));
+    }
+
+    @Test
+    public void testSplitWithoutCosts() {
+        List<ServiceSharding.Shard> shards = ServiceSharding.split(
+                List.of("myorg/svc5", "myorg/svc4", "myorg/svc3:1.0.0", "myorg/svc2", "myorg/svc1"), Map.of(), 2);
+        Assert.assertEquals(shards.get(0).services(), Set.of("myorg/svc1", "myorg/svc3:1.0.0", "myorg/svc5"));
+        Assert.assertEquals(shards.get(1).services(), Set.of("myorg/svc2", "myorg/svc4"));
+    }
+
+    @Test
+    public void testInvalidShardCount() throws IOException {
+        ShardSubCommand shardSubCommand = new ShardSubCommand(printStream, SERVICES, 5, null,
+                Files.createTempDirectory("consolidator-shards").resolve("node").toString(), false);
+        shardSubCommand.execute();
+        String buildLog = readOutput(console);
+        Assert.assertTrue(buildLog.contains("'--shards' should be between 1 and the number of services, 4"),
+                buildLog);
+    }
+
+    @Test
+    public void testInvalidCosts() throws IOException {
+        Path workDir = Files.createTempDirectory("consolidator-shards");
+        Path costsPath = workDir.resolve("costs.csv");
+        Files.writeString(costsPath, """
+                service,cpu
+                myorg/svc1,high
+                """);
+        ShardSubCommand shardSubCommand = new ShardSubCommand(printStream, SERVICES, 2, costsPath.toString(),
+                workDir.resolve("node").toString(), false);
+        shardSubCommand.execute();
+        String buildLog = readOutput(console);
+        Assert.assertTrue(buildLog.contains("Failed to read the costs, reason: invalid cpu at line 2"), buildLog);
+        Assert.assertFalse(Files.exists(workDir.resolve("node_1")));
+    }
+}
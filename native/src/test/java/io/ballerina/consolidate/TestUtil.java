@@ -72,6 +72,32 @@ public class TestUtil {
         }
     }
 
+    /**
+     * Creates a bala in the central repository of the given Ballerina home, with the given dependency graph.
+     *
+     * @return the path of the bala
+     */
+    static Path createBala(Path ballerinaHome, String org, String name, String version, String platform,
+                           String dependencyGraph) throws IOException {
+        Path balaPath = ballerinaHome.resolve("repositories").resolve(BalaRepository.CENTRAL_REPOSITORY)
+                .resolve("bala").resolve(org).resolve(name).resolve(version).resolve(platform);
+        Files.createDirectories(balaPath);
+        Files.writeString(balaPath.resolve(BalaRepository.DEPENDENCY_GRAPH_JSON), dependencyGraph);
+        return balaPath;
+    }
+
+    /**
+     * Creates a bala in the central repository of the given Ballerina home, with the given source in its default
+     * module.
+     */
+    static void createBalaWithSource(Path ballerinaHome, String org, String name, String version, String platform,
+                                     String source) throws IOException {
+        Path modulePath = createBala(ballerinaHome, org, name, version, platform, "{}").resolve("modules")
+                .resolve(name);
+        Files.createDirectories(modulePath);
+        Files.writeString(modulePath.resolve("service.bal"), source);
+    }
+
     static String readOutput(ByteArrayOutputStream console) throws IOException {
         String output = console.toString();
         console.close();
@@ -0,0 +1,265 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import io.ballerina.projects.TomlDocument;
+import io.ballerina.toml.semantic.ast.TomlTableNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class UtilTest {
+
+    @Test
+    public void testReplaceServicesArray() throws IOException {
+        String content = """
+                [package]
+                org = "myorg"
+                name = "consolidator"
+                version = "0.1.0"
+
+                # services hosted by this consolidator
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc1",   "myorg/svc2"]  # keep in sync with the deployment
+                """;
+        String expected = """
+                [package]
+                org = "myorg"
+                name = "consolidator"
+                version = "0.1.0"
+
+                # services hosted by this consolidator
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc1", "myorg/svc3"]  # keep in sync with the deployment
+                """;
+        Assert.assertEquals(Util.replaceServicesArray(content, getToolOptions(content),
+                List.of("myorg/svc1", "myorg/svc3")), expected);
+    }
+
+    @Test
+    public void testReplaceMultiLineServicesArray() throws IOException {
+        String content = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = [
+                  "myorg/svc1",
+                  "myorg/svc2"
+                ]
+                """;
+        String expected = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = [
+                  "myorg/svc2",
+                  "myorg/svc3",
+                  "myorg/svc4"
+                ]
+                """;
+        Assert.assertEquals(Util.replaceServicesArray(content, getToolOptions(content),
+                List.of("myorg/svc2", "myorg/svc3", "myorg/svc4")), expected);
+    }
+
+    @Test
+    public void testReplaceServicesArrayWithComments() throws IOException {
+        String content = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = [  # hosted services
+                  # the orders service
+                  "myorg/svc1",  # scaled separately
+                  "myorg/svc2",
+                  # retired next release
+                  "myorg/svc3"
+                  # more to come
+                ]
+                """;
+        String expected = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = [  # hosted services
+                  # the orders service
+                  "myorg/svc1:1.0.0",  # scaled separately
+                  # retired next release
+                  "myorg/svc3",
+                  "myorg/svc4"
+                  # more to come
+                ]
+                """;
+        Assert.assertEquals(Util.replaceServicesArray(content, getToolOptions(content),
+                List.of("myorg/svc1:1.0.0", "myorg/svc3", "myorg/svc4")), expected);
+    }
+
+    @Test
+    public void testReplaceWithEmptyServicesArray() throws IOException {
+        String content = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = []
+                """;
+        String expected = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc1"]
+                """;
+        Assert.assertEquals(Util.replaceServicesArray(content, getToolOptions(content), List.of("myorg/svc1")),
+                expected);
+    }
+
+    @Test
+    public void testConcurrentUpdateServices() throws Exception {
+        Path packageRoot = Files.createTempDirectory("consolidator");
+        Files.writeString(packageRoot.resolve(Util.BALLERINA_TOML), """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc0"]
+                """);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= 50; i++) {
+                String service = "myorg/svc" + i;
+                futures.add(executor.submit(() -> Util.updateServices(packageRoot, services -> services.add(service))));
+            }
+        }
+        for (Future<Boolean> future : futures) {
+            Assert.assertTrue(future.get());
+        }
+        Set<String> expected = new TreeSet<>();
+        for (int i = 0; i <= 50; i++) {
+            expected.add("myorg/svc" + i);
+        }
+        Assert.assertEquals(Util.readServices(packageRoot).orElseThrow(), expected);
+        try (Stream<Path> files = Files.list(packageRoot)) {
+            Assert.assertEquals(files.map(file -> file.getFileName().toString()).sorted().toList(),
+                    List.of(Util.BALLERINA_TOML, "target"));
+        }
+    }
+
+    @Test
+    public void testPinnedServices() {
+        Assert.assertEquals(Util.getPackageName("myorg/svc1:1.2.3"), "myorg/svc1");
+        Assert.assertEquals(Util.getVersion("myorg/svc1:1.2.3"), Optional.of("1.2.3"));
+        Assert.assertEquals(Util.getVersion("myorg/svc1"), Optional.empty());
+
+        Set<String> services = new TreeSet<>(List.of("myorg/svc1:1.0.0", "myorg/svc2"));
+        Util.addServices(services, List.of("myorg/svc1:1.1.0", "myorg/svc3"));
+        Assert.assertEquals(services, Set.of("myorg/svc1:1.1.0", "myorg/svc2", "myorg/svc3"));
+        Util.addServices(services, List.of("myorg/svc1"));
+        Assert.assertEquals(services, Set.of("myorg/svc1", "myorg/svc2", "myorg/svc3"));
+        Util.addServices(services, List.of("myorg/svc2:2.0.0"));
+        Util.removeServices(services, List.of("myorg/svc2", "myorg/svc3:1.0.0"));
+        Assert.assertEquals(services, Set.of("myorg/svc1"));
+    }
+
+    @Test
+    public void testReplaceDependencyPins() {
+        String content = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc1:1.0.0", "myorg/svc2:1.0.0", "myorg/svc3"]
+
+                [[dependency]]
+                org = "myorg"
+                name = "svc1"
+                version = "1.0.0"
+
+                [[dependency]]
+                org = "myorg"
+                name = "svc2"
+                version = "1.0.0"
+
+                [[dependency]]
+                org = "myorg"
+                name = "svc3"
+                version = "0.9.0"
+                """;
+        String expected = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc1:1.0.0", "myorg/svc2:1.0.0", "myorg/svc3"]
+
+                [[dependency]]
+                org = "myorg"
+                name = "svc1"
+                version = "1.0.0"
+
+                [[dependency]]
+                org = "myorg"
+                name = "svc3"
+                version = "0.9.0"
+
+                [[dependency]]
+                org = "myorg"
+                name = "svc4"
+                version = "2.0.0-beta.1"
+                """;
+        // The pin of svc1 is kept, the pin of svc2 is removed with it, and svc3 is not pinned by the tool.
+        Assert.assertEquals(Util.replaceDependencyPins(content,
+                List.of("myorg/svc1:1.0.0", "myorg/svc2:1.0.0", "myorg/svc3"),
+                List.of("myorg/svc1:1.0.0", "myorg/svc3", "myorg/svc4:2.0.0-beta.1")), expected);
+        Assert.assertEquals(Util.replaceDependencyPins(content, List.of("myorg/svc3"), List.of("myorg/svc3")),
+                content);
+    }
+
+    @Test
+    public void testValidatePinnedServices() throws IOException {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(console);
+        Assert.assertTrue(Util.validateServices(List.of("myorg/svc1:1.2.3", "myorg/svc2:1.0.0-alpha.1", "myorg/svc3"),
+                printStream));
+        Assert.assertFalse(Util.validateServices(List.of("myorg/svc1:1.2", "myorg/svc2:latest"), printStream));
+    }
+
+    @Test
+    public void testCopyToolOptions() {
+        String content = """
+                [[tool.consolidate-packages]]
+                id = "consolidatePackages1"
+                options.services = ["myorg/svc1", "myorg/svc2:1.0.0", "myorg/svc3"]
+                options.sharedListeners = true
+                options.sharedListenerPort = 8080
+                options.runtime.maxPoolSize = 512
+                options.health = {port = 9091, path = "/status"}
+                """;
+        Assert.assertEquals(Util.copyToolOptions(content, getToolOptions(content)), """
+                options.sharedListeners = true
+                options.sharedListenerPort = 8080
+                options.runtime.maxPoolSize = 512
+                options.health = {port = 9091, path = "/status"}
+                """);
+    }
+
+    private static TomlTableNode getToolOptions(String content) {
+        return Util.getToolOptions(TomlDocument.from(Util.BALLERINA_TOML, content).toml().rootNode()).orElseThrow();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com)
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.consolidate;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static io.ballerina.consolidate.TestUtil.getOutput;
+import static io.ballerina.consolidate.TestUtil.readOutput;
+import static io.ballerina.consolidate.TestUtil.testResources;
+
+public class WatchCommandTest {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private static final String BALLERINA_TOML = """
+            [package]
+            org = "myorg"
+            name = "consolidator"
+            version = "0.1.0"
+
+            [[tool.consolidate-packages]]
+            id = "consolidatePackages1"
+            options.services = [%s]
+            """;
+
+    private ByteArrayOutputStream console;
+    private PrintStream printStream;
+
+    @BeforeMethod
+    public void clearConsoleLog() {
+        this.console = new ByteArrayOutputStream();
+        this.printStream = new PrintStream(this.console, true);
+    }
+
+    @Test
+    public void testHelp() throws IOException {
+        WatchSubCommand watchSubCommand = new WatchSubCommand(printStream);
+        watchSubCommand.execute();
+        String buildLog = readOutput(console);
+        String expected = getOutput(testResources.resolve("command-outputs"), "help-watch.txt");
+        Assert.assertTrue(buildLog.contains(expected), "Help text mismatched");
+    }
+
+    @Test
+    public void testWatch() throws IOException, InterruptedException {
+        Path packageRoot = Files.createTempDirectory("consolidator-watch");
+        Path balTomlPath = packageRoot.resolve(Util.BALLERINA_TOML);
+        Files.writeString(balTomlPath, BALLERINA_TOML.formatted("\"myorg/svc1\""));
+        Path consolidatorBal = packageRoot.resolve("generated").resolve(CodeGenerator.CONSOLIDATOR_BAL);
+
+        Thread watcher = Thread.ofVirtual().start(new WatchSubCommand(printStream, packageRoot, DEBOUNCE_MILLIS,
+                false)::execute);
+        try {
+            waitFor(() -> Files.isRegularFile(consolidatorBal) && console.toString().contains("Watching"));
+            Assert.assertEquals(Files.readString(consolidatorBal), "import myorg/svc1 as _;\n");
+
+            // A burst of edits regenerates the sources from the last of them
+            Files.writeString(balTomlPath, BALLERINA_TOML.formatted("\"myorg/svc1\", \"myorg/svc2\""));
+            Files.writeString(balTomlPath, BALLERINA_TOML.formatted("\"myorg/svc3\", \"myorg/svc1\""));
+            waitFor(() -> Files.readString(consolidatorBal).contains("myorg/svc3"));
+            Assert.assertEquals(Files.readString(consolidatorBal), """
+                    import myorg/svc1 as _;
+                    import myorg/svc3 as _;
+                    """);
+
+            // Edits that do not change the options do not regenerate the sources, once the earlier edits settled
+            Thread.sleep(DEBOUNCE_MILLIS);
+            int regenerations = countRegenerations();
+            FileTime lastModified = Files.getLastModifiedTime(consolidatorBal);
+            Files.writeString(balTomlPath, "# consolidated services\n"
+                    + BALLERINA_TOML.formatted("\"myorg/svc1\", \"myorg/svc3\""));
+            Thread.sleep(4 * DEBOUNCE_MILLIS);
+            Assert.assertEquals(countRegenerations(), regenerations, console.toString());
+            Assert.assertEquals(Files.getLastModifiedTime(consolidatorBal), lastModified);
+
+            Files.writeString(balTomlPath, BALLERINA_TOML.formatted("\"myorg/svc1\", \"myorg/svc4\""));
+            waitFor(() -> Files.readString(consolidatorBal).contains("myorg/svc4")
+                    && countRegenerations() > regenerations);
+        } finally {
+            watcher.interrupt();
+            watcher.join();
+        }
+    }
+
+    private int countRegenerations() {
+        return console.toString().split("Regenerated the sources", -1).length - 1;
+    }
+
+    @Test
+    public void testWatchOutsidePackage() throws IOException {
+        WatchSubCommand watchSubCommand = new WatchSubCommand(printStream,
+                Files.createTempDirectory("consolidator-watch"), 100, false);
+        watchSubCommand.execute();
+        Assert.assertTrue(readOutput(console).contains("Current directory is not a valid Ballerina package"));
+    }
+
+    private static void waitFor(Condition condition) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.isMet()) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the watch command");
+            Thread.sleep(50);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet() throws IOException;
+    }
+}